@@ -0,0 +1,72 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * Starts the application against an in-memory H2 database and seeds one owner
+ * with {@value #ITEMS} items, {@value #BOOKINGS} bookings spread over
+ * {@value #BOOKERS} bookers and {@value #COMMENTS_PER_ITEM} comments per item.
+ * Rows are inserted with plain SQL, so in-memory indexes built at startup do
+ * not see them; the benchmarks only read through repositories.
+ */
+final class BenchmarkDataset {
+    static final long OWNER_ID = 1L;
+
+    static final int ITEMS = 1_000;
+
+    static final int BOOKINGS = 100_000;
+
+    static final int BOOKERS = 100;
+
+    static final int COMMENTS_PER_ITEM = 20;
+
+    private BenchmarkDataset() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        ConfigurableApplicationContext context = run("shareit-jmh");
+        seed(context.getBean(JdbcTemplate.class));
+        return context;
+    }
+
+    /**
+     * Starts the application against an empty in-memory database of the given
+     * name, {@code overrides} are passed as command-line properties.
+     */
+    static ConfigurableApplicationContext run(String database, String... overrides) {
+        String[] defaults = {
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--shareit.sql-budget.sample-rate=0.01",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"
+        };
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(Stream.concat(Arrays.stream(defaults), Arrays.stream(overrides)).toArray(String[]::new));
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into users (id, name, email) " +
+                "select x, 'user ' || x, 'user' || x || '@bench.ru' from system_range(1, ?)", BOOKERS + 1);
+        jdbcTemplate.update("insert into items (id, name, description, available, owner_id) " +
+                "select x, 'item ' || x, 'benchmark item ' || x, true, ? from system_range(1, ?)", OWNER_ID, ITEMS);
+        jdbcTemplate.update("insert into bookings (id, start_time, end_time, item_id, booker_id, status) " +
+                "select x, dateadd(HOUR, x - ?, localtimestamp), dateadd(HOUR, x - ? + 2, localtimestamp), " +
+                "mod(x - 1, ?) + 1, mod(x - 1, ?) + 2, " +
+                "case mod(x, 4) when 0 then 'WAITING' when 3 then 'REJECTED' else 'APPROVED' end " +
+                "from system_range(1, ?)", BOOKINGS / 2, BOOKINGS / 2, ITEMS, BOOKERS, BOOKINGS);
+        jdbcTemplate.update("insert into comments (id, text, item_id, author_id, create_date) " +
+                "select x, 'comment ' || x, mod(x - 1, ?) + 1, mod(x - 1, ?) + 2, localtimestamp " +
+                "from system_range(1, ?)", ITEMS, BOOKERS, ITEMS * COMMENTS_PER_ITEM);
+    }
+}
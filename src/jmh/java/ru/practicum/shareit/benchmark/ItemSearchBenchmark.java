@@ -0,0 +1,85 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of item search over {@value #ITEMS} items, from the inverted index
+ * and from the LIKE query it replaced. Names are {@code tool<n> kit<m>} with
+ * {@value #TOOLS} tools: {@code tool999} matches 0.1% of the items, the prefix
+ * {@code tool1} 11% and {@code nothing} none, which makes LIKE scan the table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSearchBenchmark {
+    static final int ITEMS = 1_000_000;
+
+    static final int TOOLS = 1_000;
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"tool999", "tool1", "nothing"})
+    private String text;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemSearchIndex itemSearchIndex;
+
+    private ItemRepository itemRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDataset.run("shareit-jmh-search",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into users (id, name, email) values (?, 'owner', 'owner@bench.ru')",
+                BenchmarkDataset.OWNER_ID);
+        jdbcTemplate.update("insert into items (id, name, description, available, owner_id) " +
+                "select x, 'tool' || mod(x, ?) || ' kit' || mod(x, 7), 'benchmark item ' || x, true, ? " +
+                "from system_range(1, ?)", TOOLS, BenchmarkDataset.OWNER_ID, ITEMS);
+        itemSearchIndex = context.getBean(ItemSearchIndex.class);
+        itemSearchIndex.rebuild();
+        itemRepository = context.getBean(ItemRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> index() {
+        return itemSearchIndex.search(text, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Slice<Item> like() {
+        return itemRepository.searchByText(text, PageRequest.of(0, PAGE_SIZE));
+    }
+}
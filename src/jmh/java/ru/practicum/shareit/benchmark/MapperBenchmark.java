@@ -0,0 +1,129 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRowDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.comment.Mapper.CommentMapper;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.dto.ItemCommentDto;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private Item item;
+
+    private Booking booking;
+
+    private BookingRowDto bookingRow;
+
+    private Comment comment;
+
+    private ItemCommentDto itemComment;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = new User(1L, "owner", "owner@bench.ru");
+        User booker = new User(2L, "booker", "booker@bench.ru");
+        ItemRequest request = ItemRequest.builder()
+                .id(1L)
+                .description("need a drill")
+                .requester(booker)
+                .created(now)
+                .build();
+        item = Item.builder()
+                .id(1L)
+                .name("drill")
+                .description("cordless drill")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build();
+        booking = Booking.builder()
+                .id(1L)
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.APPROVED)
+                .build();
+        bookingRow = BookingRowDto.builder()
+                .id(1L)
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .status(BookingStatus.APPROVED)
+                .itemId(1L)
+                .itemName("drill")
+                .itemDescription("cordless drill")
+                .itemAvailable(true)
+                .itemRequestId(1L)
+                .bookerId(2L)
+                .bookerName("booker")
+                .bookerEmail("booker@bench.ru")
+                .build();
+        comment = Comment.builder()
+                .id(1L)
+                .text("great drill")
+                .item(item)
+                .author(booker)
+                .created(now)
+                .build();
+        itemComment = ItemCommentDto.builder()
+                .itemId(1L)
+                .id(1L)
+                .text("great drill")
+                .authorName("booker")
+                .created(now)
+                .build();
+    }
+
+    @Benchmark
+    public ItemDto itemToItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public BookingDto bookingToBookingDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public BookingDto bookingRowToBookingDto() {
+        return BookingMapper.toBookingDto(bookingRow);
+    }
+
+    @Benchmark
+    public CommentDto commentToCommentDto() {
+        return CommentMapper.toCommentDto(comment, comment.getAuthor().getName());
+    }
+
+    @Benchmark
+    public CommentDto itemCommentToCommentDto() {
+        return CommentMapper.toCommentDto(itemComment);
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows written per second when {@value #ROWS} items are saved in one
+ * transaction, and when {@value #ROWS} bookings are created through the batch
+ * endpoint, with JDBC batching off ({@code batchSize} 1) and on. Ids come from
+ * the pooled sequences either way. In-memory H2 has no network round trip, so
+ * the gain from batching against PostgreSQL is larger than measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteThroughputBenchmark {
+    private static final int ROWS = 50;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemRepository itemRepository;
+
+    private BookingService bookingService;
+
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+
+    private Long bookerId;
+
+    private List<Long> itemIds;
+
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDataset.run("shareit-jmh-write-" + batchSize,
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingService = context.getBean(BookingService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        owner = userRepository.save(User.builder().name("owner").email("owner@bench.ru").build());
+        bookerId = userRepository.save(User.builder().name("booker").email("booker@bench.ru").build()).getId();
+        itemIds = new ArrayList<>();
+        itemRepository.saveAll(newItems()).forEach(item -> itemIds.add(item.getId()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Item> saveItems() {
+        return transactionTemplate.execute(status -> itemRepository.saveAll(newItems()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<BookingBatchResultDto> createBookings() {
+        // every round books the next free day of each item, so no booking is rejected
+        LocalDateTime start = LocalDateTime.now().plusDays(1L + round++);
+        List<BookingShortDto> bookings = new ArrayList<>(ROWS);
+        for (Long itemId : itemIds) {
+            bookings.add(new BookingShortDto(start, start.plusHours(12L), itemId));
+        }
+        return bookingService.createBookings(bookerId, bookings);
+    }
+
+    private List<Item> newItems() {
+        List<Item> items = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            items.add(Item.builder()
+                    .name("item " + i)
+                    .description("benchmark item " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Overlap checks against the bookings of one item, from the {@link IntervalTree}
+ * and from a linear scan of the same intervals. Bookings are two hours long
+ * with a gap of one hour, query windows of one to 48 hours are spread over the
+ * whole range.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntervalTreeBenchmark {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private static final int WINDOWS = 1024;
+
+    @Param({"100", "10000"})
+    private int bookings;
+
+    private IntervalTree tree;
+
+    private List<BookingInterval> intervals;
+
+    private LocalDateTime[] windowStarts;
+
+    private LocalDateTime[] windowEnds;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        tree = new IntervalTree();
+        intervals = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            BookingInterval interval = new BookingInterval((long) i, BASE.plusHours(3L * i),
+                    BASE.plusHours(3L * i + 2));
+            tree.add(interval);
+            intervals.add(interval);
+        }
+        Random random = new Random(42);
+        windowStarts = new LocalDateTime[WINDOWS];
+        windowEnds = new LocalDateTime[WINDOWS];
+        for (int i = 0; i < WINDOWS; i++) {
+            windowStarts[i] = BASE.plusMinutes(random.nextInt(bookings * 3 * 60));
+            windowEnds[i] = windowStarts[i].plusHours(1 + random.nextInt(48));
+        }
+    }
+
+    @Benchmark
+    public boolean treeOverlaps() {
+        int window = nextWindow();
+        return tree.overlaps(windowStarts[window], windowEnds[window]);
+    }
+
+    @Benchmark
+    public boolean scanOverlaps() {
+        int window = nextWindow();
+        LocalDateTime from = windowStarts[window];
+        LocalDateTime to = windowEnds[window];
+        return intervals.stream().anyMatch(interval -> interval.overlaps(from, to));
+    }
+
+    @Benchmark
+    public List<BookingInterval> treeFindOverlapping() {
+        int window = nextWindow();
+        return tree.findOverlapping(windowStarts[window], windowEnds[window]);
+    }
+
+    @Benchmark
+    public List<BookingInterval> scanFindOverlapping() {
+        int window = nextWindow();
+        LocalDateTime from = windowStarts[window];
+        LocalDateTime to = windowEnds[window];
+        return intervals.stream()
+                .filter(interval -> interval.overlaps(from, to))
+                .collect(Collectors.toList());
+    }
+
+    private int nextWindow() {
+        next = (next + 1) & (WINDOWS - 1);
+        return next;
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import ru.practicum.shareit.ShareItApp;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Sends {@code loadtest.concurrency} booker history requests at once, first to
+ * the application on Tomcat's platform thread pool, then on virtual threads,
+ * and prints latency, errors and wall time of both bursts. Needs Java 21 and an
+ * open file limit above the concurrency, every request gets its own connection.
+ *
+ * <pre>
+ * mvn -P loadtest,java21 -DskipTests test-compile exec:exec \
+ *     -Dloadtest.main=ru.practicum.shareit.loadtest.ConcurrencyBenchmark \
+ *     -Dloadtest.args="--loadtest.concurrency=10000"
+ * </pre>
+ */
+public class ConcurrencyBenchmark {
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    private static final String ENDPOINT = "GET /bookings";
+
+    private static final int WARMUP_REQUESTS = 500;
+
+    public static void main(String[] args) throws Exception {
+        String platform = run(false, args);
+        String virtual = run(true, args);
+        System.out.println(platform);
+        System.out.println(virtual);
+    }
+
+    private static String run(boolean virtualThreads, String[] args) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        String[] overrides = {
+                "--server.port=0",
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=10000",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:shareit-concurrency-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.connection-timeout=60000",
+                "--shareit.sql-budget.sample-rate=0.01",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"
+        };
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .run(Stream.concat(Arrays.stream(overrides), Arrays.stream(args)).toArray(String[]::new));
+        try {
+            Environment environment = context.getEnvironment();
+            LoadTestSettings settings = new LoadTestSettings(environment);
+            int concurrency = environment.getProperty("loadtest.concurrency", Integer.class, 10_000);
+            SeededData data = LoadTestDataGenerator.of(settings, context).generate();
+            String baseUrl = "http://localhost:" + environment.getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+            Random random = new Random(settings.getSeed());
+
+            burst(client, baseUrl, data, random, WARMUP_REQUESTS, new LatencyRecorder());
+            LatencyRecorder recorder = new LatencyRecorder();
+            long start = System.nanoTime();
+            burst(client, baseUrl, data, random, concurrency, recorder);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            return mode + " threads, " + concurrency + " concurrent requests in " + elapsed.toMillis() + " ms\n" +
+                    recorder.report(elapsed);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void burst(HttpClient client, String baseUrl, SeededData data, Random random, int requests,
+                              LatencyRecorder recorder) throws Exception {
+        List<CompletableFuture<?>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings?state=ALL&from=0&size=20"))
+                    .header(USER_ID, LoadTestDataGenerator.pick(data.getBookerIds(), random).toString())
+                    .timeout(Duration.ofMinutes(2))
+                    .GET()
+                    .build();
+            long sent = System.nanoTime();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> recorder.record(ENDPOINT, System.nanoTime() - sent,
+                            error == null && response.statusCode() < 400)));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0]))
+                .exceptionally(error -> null)
+                .get(5, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.loadtest;
+
+import org.h2.tools.Server;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import ru.practicum.shareit.ShareItApp;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Seeds one owner with {@code loadtest.export.bookings} bookings and downloads
+ * the owner's booking export as CSV and NDJSON from an application running in
+ * its own JVM with a {@code loadtest.export.heap} heap, printing rows, size and
+ * time of each download. The database is an H2 server in this JVM, so only the
+ * export itself has to fit in the small heap; the application exits on
+ * {@code OutOfMemoryError} and the run fails if a download misses rows.
+ *
+ * <pre>
+ * mvn -P loadtest -DskipTests test-compile exec:exec \
+ *     -Dloadtest.main=ru.practicum.shareit.loadtest.ExportBenchmark \
+ *     -Dloadtest.args="--loadtest.export.bookings=1000000 --loadtest.export.heap=64m"
+ * </pre>
+ */
+public class ExportBenchmark {
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    private static final long OWNER_ID = 1L;
+
+    private static final long BOOKER_ID = 2L;
+
+    private static final int ITEMS = 100;
+
+    private static final int CHUNK = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        SimpleCommandLinePropertySource arguments = new SimpleCommandLinePropertySource(args);
+        int bookings = Integer.parseInt(property(arguments, "loadtest.export.bookings", "1000000"));
+        String heap = property(arguments, "loadtest.export.heap", "64m");
+
+        Server database = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        String url = "jdbc:h2:tcp://localhost:" + database.getPort() + "/mem:shareit-export;DB_CLOSE_DELAY=-1";
+        int port = freePort();
+        Process application = new ProcessBuilder(List.of(
+                new File(System.getProperty("java.home"), "bin/java").getPath(),
+                "-Xmx" + heap,
+                "-XX:+ExitOnOutOfMemoryError",
+                "-classpath", System.getProperty("java.class.path"),
+                ShareItApp.class.getName(),
+                "--spring.profiles.active=test",
+                "--server.port=" + port,
+                "--spring.datasource.url=" + url,
+                "--shareit.sql-budget.sample-rate=0",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"))
+                .inheritIO()
+                .start();
+        try {
+            String baseUrl = "http://localhost:" + port;
+            HttpClient client = HttpClient.newHttpClient();
+            awaitStarted(client, baseUrl, application);
+            try (Connection connection = DriverManager.getConnection(url, "test", "test")) {
+                seed(connection, bookings);
+            }
+
+            System.out.printf("application heap %s, %d bookings%n", heap, bookings);
+            download(client, baseUrl, application, "csv", bookings + 1);
+            download(client, baseUrl, application, "ndjson", bookings);
+        } finally {
+            application.destroy();
+            application.waitFor();
+            database.stop();
+        }
+    }
+
+    private static String property(SimpleCommandLinePropertySource arguments, String name, String defaultValue) {
+        String value = arguments.getProperty(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void awaitStarted(HttpClient client, String baseUrl, Process application) throws Exception {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).GET().build();
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("application exited with " + application.exitValue());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("application did not start");
+    }
+
+    private static void seed(Connection connection, int bookings) throws SQLException {
+        update(connection, "insert into users (id, name, email) values (?, 'owner', 'export-owner@mail.ru')",
+                OWNER_ID);
+        update(connection, "insert into users (id, name, email) values (?, 'booker', 'export-booker@mail.ru')",
+                BOOKER_ID);
+        update(connection, "insert into items (id, name, description, available, owner_id) " +
+                "select x, 'item ' || x, 'exported item', true, ? from system_range(1, ?)", OWNER_ID, ITEMS);
+        for (long from = 1; from <= bookings; from += CHUNK) {
+            update(connection, "insert into bookings (id, start_time, end_time, item_id, booker_id, status) " +
+                            "select x, dateadd('HOUR', x, timestamp '2020-01-01 00:00:00'), " +
+                            "dateadd('HOUR', x + 1, timestamp '2020-01-01 00:00:00'), mod(x, ?) + 1, ?, " +
+                            "case mod(x, 10) when 9 then 'REJECTED' else 'APPROVED' end " +
+                            "from system_range(?, ?)",
+                    ITEMS, BOOKER_ID, from, Math.min(bookings, from + CHUNK - 1));
+        }
+    }
+
+    private static void update(Connection connection, String sql, long... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setLong(i + 1, parameters[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    private static void download(HttpClient client, String baseUrl, Process application, String format,
+                                 long expectedLines) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/owner/export?format=" + format))
+                .header(USER_ID, String.valueOf(OWNER_ID))
+                .timeout(Duration.ofMinutes(10))
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        long lines = 0;
+        long chars = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                chars += line.length() + 1;
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        System.out.printf("%s: status %d, %d lines, %d MB, %d ms%n", format, response.statusCode(), lines,
+                chars >> 20, elapsed.toMillis());
+        if (!application.isAlive()) {
+            throw new IllegalStateException("application exited with " + application.exitValue());
+        }
+        if (response.statusCode() != 200 || lines != expectedLines) {
+            throw new IllegalStateException(format + " export returned " + lines + " lines, expected "
+                    + expectedLines);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Latencies of every measured call, kept per endpoint and reported as
+ * percentiles once the run is over.
+ */
+class LatencyRecorder {
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long latencyNanos, boolean ok) {
+        samples.computeIfAbsent(endpoint, name -> new Samples()).add(latencyNanos, ok);
+    }
+
+    String report(Duration measured) {
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT, "%-24s %8s %7s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "rps", "p50 ms", "p99 ms", "p999 ms"));
+        double seconds = measured.toNanos() / 1e9;
+        new ConcurrentSkipListMap<>(samples).forEach((endpoint, endpointSamples) -> {
+            long[] latencies = endpointSamples.sorted();
+            report.append(String.format(Locale.ROOT, "%-24s %8d %7d %9.1f %9.2f %9.2f %9.2f%n",
+                    endpoint, latencies.length, endpointSamples.errors(), latencies.length / seconds,
+                    millis(percentile(latencies, 0.5)), millis(percentile(latencies, 0.99)),
+                    millis(percentile(latencies, 0.999))));
+        });
+        return report.toString();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static class Samples {
+        private long[] latencies = new long[1024];
+
+        private int size;
+
+        private int errors;
+
+        synchronized void add(long latencyNanos, boolean ok) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized int errors() {
+            return errors;
+        }
+    }
+}
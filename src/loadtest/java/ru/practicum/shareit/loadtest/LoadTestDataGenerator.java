@@ -0,0 +1,167 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Seeds users, requests, items, bookings and comments through the repositories.
+ * Rows are saved in chunks of {@value #CHUNK}, one transaction per chunk, so
+ * Hibernate sends them as JDBC batches. Bookings of an item follow each other
+ * without overlapping, half of them in the past and half in the future.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class LoadTestDataGenerator {
+    static final String[] WORDS = {"drill", "saw", "ladder", "tent", "kayak", "projector", "camera", "bike"};
+
+    private static final int CHUNK = 1_000;
+
+    private final LoadTestSettings settings;
+
+    private final UserRepository userRepository;
+
+    private final ItemRequestRepository itemRequestRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final CommentRepository commentRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ItemSearchIndex itemSearchIndex;
+
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+
+    static LoadTestDataGenerator of(LoadTestSettings settings, ApplicationContext context) {
+        return new LoadTestDataGenerator(settings,
+                context.getBean(UserRepository.class),
+                context.getBean(ItemRequestRepository.class),
+                context.getBean(ItemRepository.class),
+                context.getBean(BookingRepository.class),
+                context.getBean(CommentRepository.class),
+                context.getBean(TransactionTemplate.class),
+                context.getBean(ItemSearchIndex.class),
+                context.getBean(ItemAvailabilityIndex.class));
+    }
+
+    SeededData generate() {
+        Random random = new Random(settings.getSeed());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> ownerIds = write("owners", settings.getOwners(), i -> User.builder()
+                .name("owner " + i)
+                .email("loadtest-owner-" + i + "@mail.ru")
+                .build(), userRepository, User::getId);
+        List<Long> bookerIds = write("bookers", settings.getBookers(), i -> User.builder()
+                .name("booker " + i)
+                .email("loadtest-booker-" + i + "@mail.ru")
+                .build(), userRepository, User::getId);
+
+        List<Long> requesterIds = new ArrayList<>();
+        List<Long> requestIds = write("requests", settings.getRequests(), i -> {
+            Long requesterId = pick(bookerIds, random);
+            requesterIds.add(requesterId);
+            return ItemRequest.builder()
+                    .description("need a " + WORDS[i % WORDS.length])
+                    .requester(userRepository.getReferenceById(requesterId))
+                    .created(now.minusHours(i))
+                    .build();
+        }, itemRequestRepository, ItemRequest::getId);
+
+        int itemCount = settings.getOwners() * settings.getItemsPerOwner();
+        List<Long> itemOwnerIds = new ArrayList<>();
+        List<Long> itemIds = write("items", itemCount, i -> {
+            Long ownerId = ownerIds.get(i / settings.getItemsPerOwner());
+            itemOwnerIds.add(ownerId);
+            String word = WORDS[random.nextInt(WORDS.length)];
+            return Item.builder()
+                    .name(word + " " + i)
+                    .description("well kept " + word + ", pick up in person")
+                    .available(random.nextInt(10) != 0)
+                    .owner(userRepository.getReferenceById(ownerId))
+                    .request(!requestIds.isEmpty() && i % 4 == 0
+                            ? itemRequestRepository.getReferenceById(pick(requestIds, random)) : null)
+                    .build();
+        }, itemRepository, Item::getId);
+
+        int bookingsPerItem = settings.getBookingsPerItem();
+        LocalDateTime firstStart = now.minusDays(3L * bookingsPerItem / 2);
+        write("bookings", itemCount * bookingsPerItem, i -> {
+            int slot = i / itemCount;
+            LocalDateTime start = firstStart.plusDays(3L * slot);
+            return Booking.builder()
+                    .start(start)
+                    .end(start.plusDays(2))
+                    .item(itemRepository.getReferenceById(itemIds.get(i % itemCount)))
+                    .booker(userRepository.getReferenceById(pick(bookerIds, random)))
+                    .bookingStatus(status(random))
+                    .build();
+        }, bookingRepository, Booking::getId);
+
+        write("comments", itemCount * settings.getCommentsPerItem(), i -> Comment.builder()
+                .text("comment " + i)
+                .item(itemRepository.getReferenceById(itemIds.get(i % itemCount)))
+                .author(userRepository.getReferenceById(pick(bookerIds, random)))
+                .created(now.minusMinutes(i))
+                .build(), commentRepository, Comment::getId);
+
+        itemSearchIndex.rebuild();
+        itemAvailabilityIndex.clear();
+        return new SeededData(ownerIds, bookerIds, itemIds, itemOwnerIds, requestIds, requesterIds);
+    }
+
+    private <T> List<Long> write(String name, int count, IntFunction<T> factory, JpaRepository<T, Long> repository,
+                                 Function<T, Long> id) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += CHUNK) {
+            int chunkStart = from;
+            int chunkEnd = Math.min(count, from + CHUNK);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<T> entities = new ArrayList<>(chunkEnd - chunkStart);
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    entities.add(factory.apply(i));
+                }
+                repository.saveAll(entities).forEach(entity -> ids.add(id.apply(entity)));
+            });
+        }
+        log.info("seeded {} {}", count, name);
+        return ids;
+    }
+
+    private static BookingStatus status(Random random) {
+        int roll = random.nextInt(10);
+        if (roll < 7) {
+            return BookingStatus.APPROVED;
+        }
+        return roll < 9 ? BookingStatus.WAITING : BookingStatus.REJECTED;
+    }
+
+    static Long pick(List<Long> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Starts the application on a random port against in-memory H2, seeds it and
+ * sends requests at a fixed rate for the warmup and the measured period. Calls
+ * are started on schedule whether or not earlier ones have finished, and
+ * latency is taken from the scheduled start, so a stalled server shows up in
+ * the percentiles instead of lowering the request rate.
+ *
+ * <pre>
+ * mvn -P loadtest -DskipTests test-compile exec:exec -Dloadtest.args="--loadtest.rps=500 --loadtest.duration=2m"
+ * </pre>
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    private static final String[] OVERRIDES = {
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:shareit-loadtest;DB_CLOSE_DELAY=-1",
+            "--shareit.sql-budget.sample-rate=0.01",
+            "--logging.level.root=WARN",
+            "--logging.level.ru.practicum.shareit.loadtest=INFO",
+            "--logging.level.org.springframework.transaction.interceptor=WARN",
+            "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"
+    };
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .run(Stream.concat(Arrays.stream(OVERRIDES), Arrays.stream(args)).toArray(String[]::new));
+        try {
+            LoadTestSettings settings = new LoadTestSettings(context.getEnvironment());
+            log.info("load test settings: {}", settings);
+            SeededData data = LoadTestDataGenerator.of(settings, context).generate();
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            LoadTestScenario scenario = new LoadTestScenario(baseUrl, data, context.getBean(ObjectMapper.class));
+            System.out.println(run(settings, scenario));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static String run(LoadTestSettings settings, LoadTestScenario scenario) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        LatencyRecorder recorder = new LatencyRecorder();
+        Random random = new Random(settings.getSeed());
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.getRps();
+        long start = System.nanoTime();
+        long measureFrom = start + settings.getWarmup().toNanos();
+        long end = measureFrom + settings.getDuration().toNanos();
+        for (long scheduled = start; scheduled < end; scheduled += interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            LoadTestScenario.Call call = scenario.next(random);
+            boolean measured = scheduled >= measureFrom;
+            long scheduledAt = scheduled;
+            inFlight.add(client.sendAsync(call.getRequest(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (measured) {
+                            recorder.record(call.getEndpoint(), System.nanoTime() - scheduledAt,
+                                    error == null && response.statusCode() < 400);
+                        }
+                    }));
+            inFlight.removeIf(CompletableFuture::isDone);
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                .exceptionally(error -> null)
+                .get(1, TimeUnit.MINUTES);
+        return recorder.report(settings.getDuration());
+    }
+}
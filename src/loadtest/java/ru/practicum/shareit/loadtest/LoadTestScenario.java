@@ -0,0 +1,142 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Weighted endpoint mix of the load test. Reads dominate: owners list their
+ * items and bookings, bookers browse and search items. A small share of calls
+ * creates bookings and edits items, which also invalidates cached rows.
+ */
+class LoadTestScenario {
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    private final String baseUrl;
+
+    private final SeededData data;
+
+    private final ObjectMapper objectMapper;
+
+    private final int totalWeight;
+
+    LoadTestScenario(String baseUrl, SeededData data, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.objectMapper = objectMapper;
+        int weight = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            weight += endpoint.weight;
+        }
+        this.totalWeight = weight;
+    }
+
+    Call next(Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (Endpoint endpoint : Endpoint.values()) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return new Call(endpoint.label, request(endpoint, random));
+            }
+        }
+        throw new IllegalStateException("endpoint weights do not add up");
+    }
+
+    private HttpRequest request(Endpoint endpoint, Random random) {
+        Long owner = LoadTestDataGenerator.pick(data.getOwnerIds(), random);
+        Long booker = LoadTestDataGenerator.pick(data.getBookerIds(), random);
+        int itemIndex = random.nextInt(data.getItemIds().size());
+        Long item = data.getItemIds().get(itemIndex);
+        switch (endpoint) {
+            case OWNER_ITEMS:
+                return get("/items?from=0&size=20", owner);
+            case ITEM:
+                return get("/items/" + item, booker);
+            case ITEM_SEARCH:
+                return get("/items/search?text=" + LoadTestDataGenerator.WORDS[random.nextInt(
+                        LoadTestDataGenerator.WORDS.length)] + "&from=0&size=20", booker);
+            case OWNER_BOOKINGS:
+                return get("/bookings/owner?state=" + (random.nextBoolean() ? "ALL" : "FUTURE") +
+                        "&from=0&size=20", owner);
+            case BOOKER_BOOKINGS:
+                return get("/bookings?state=" + (random.nextBoolean() ? "ALL" : "PAST") +
+                        "&from=0&size=20", booker);
+            case OWN_REQUESTS:
+                return get("/requests", LoadTestDataGenerator.pick(data.getRequesterIds(), random));
+            case ALL_REQUESTS:
+                return get("/requests/all?from=0&size=20", owner);
+            case REQUEST:
+                return get("/requests/" + LoadTestDataGenerator.pick(data.getRequestIds(), random), booker);
+            case USER:
+                return get("/users/" + booker, null);
+            case CREATE_BOOKING:
+                LocalDateTime start = LocalDateTime.now().plusDays(30 + random.nextInt(3650));
+                return send("POST", "/bookings", booker, BookingShortDto.builder()
+                        .itemId(item)
+                        .start(start)
+                        .end(start.plusHours(1 + random.nextInt(48)))
+                        .build());
+            case UPDATE_ITEM:
+                return send("PATCH", "/items/" + item, data.getItemOwnerIds().get(itemIndex), ItemDto.builder()
+                        .description("updated " + random.nextInt())
+                        .build());
+            default:
+                throw new IllegalArgumentException(endpoint.name());
+        }
+    }
+
+    private HttpRequest get(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+        if (userId != null) {
+            builder.header(USER_ID, userId.toString());
+        }
+        return builder.build();
+    }
+
+    private HttpRequest send(String method, String path, Long userId, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header(USER_ID, userId.toString())
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private enum Endpoint {
+        OWNER_ITEMS("GET /items", 20),
+        ITEM("GET /items/{id}", 20),
+        ITEM_SEARCH("GET /items/search", 10),
+        OWNER_BOOKINGS("GET /bookings/owner", 10),
+        BOOKER_BOOKINGS("GET /bookings", 10),
+        OWN_REQUESTS("GET /requests", 5),
+        ALL_REQUESTS("GET /requests/all", 5),
+        REQUEST("GET /requests/{id}", 5),
+        USER("GET /users/{id}", 5),
+        CREATE_BOOKING("POST /bookings", 7),
+        UPDATE_ITEM("PATCH /items/{id}", 3);
+
+        private final String label;
+
+        private final int weight;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class Call {
+        private final String endpoint;
+
+        private final HttpRequest request;
+    }
+}
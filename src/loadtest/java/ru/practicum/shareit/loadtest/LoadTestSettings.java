@@ -0,0 +1,54 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Scale of the seeded dataset and shape of the load, read from
+ * {@code --loadtest.*} arguments.
+ */
+@Getter
+class LoadTestSettings {
+    private final int owners;
+
+    private final int bookers;
+
+    private final int itemsPerOwner;
+
+    private final int requests;
+
+    private final int bookingsPerItem;
+
+    private final int commentsPerItem;
+
+    private final int rps;
+
+    private final Duration warmup;
+
+    private final Duration duration;
+
+    private final long seed;
+
+    LoadTestSettings(Environment environment) {
+        owners = environment.getProperty("loadtest.owners", Integer.class, 20);
+        bookers = environment.getProperty("loadtest.bookers", Integer.class, 200);
+        itemsPerOwner = environment.getProperty("loadtest.items-per-owner", Integer.class, 50);
+        requests = environment.getProperty("loadtest.requests", Integer.class, 500);
+        bookingsPerItem = environment.getProperty("loadtest.bookings-per-item", Integer.class, 20);
+        commentsPerItem = environment.getProperty("loadtest.comments-per-item", Integer.class, 5);
+        rps = environment.getProperty("loadtest.rps", Integer.class, 200);
+        warmup = environment.getProperty("loadtest.warmup", Duration.class, Duration.ofSeconds(10));
+        duration = environment.getProperty("loadtest.duration", Duration.class, Duration.ofSeconds(60));
+        seed = environment.getProperty("loadtest.seed", Long.class, 42L);
+    }
+
+    @Override
+    public String toString() {
+        return "owners=" + owners + ", bookers=" + bookers + ", itemsPerOwner=" + itemsPerOwner +
+                ", requests=" + requests + ", bookingsPerItem=" + bookingsPerItem +
+                ", commentsPerItem=" + commentsPerItem + ", rps=" + rps + ", warmup=" + warmup +
+                ", duration=" + duration + ", seed=" + seed;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ids written by {@link LoadTestDataGenerator}. {@code itemOwnerIds} is
+ * parallel to {@code itemIds}.
+ */
+@Getter
+@RequiredArgsConstructor
+class SeededData {
+    private final List<Long> ownerIds;
+
+    private final List<Long> bookerIds;
+
+    private final List<Long> itemIds;
+
+    private final List<Long> itemOwnerIds;
+
+    private final List<Long> requestIds;
+
+    private final List<Long> requesterIds;
+}
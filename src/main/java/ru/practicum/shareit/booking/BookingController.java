@@ -1,11 +1,20 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.transfer.BookingExportService;
+import ru.practicum.shareit.transfer.TransferFormat;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -19,8 +28,12 @@ public class BookingController {
 
     private static final String USER_ID = "X-Sharer-User-Id";
 
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
+    private final BookingExportService bookingExportService;
+
 
     @PostMapping
     public BookingDto createBooking(@RequestHeader(USER_ID) Long userId,
@@ -28,6 +41,12 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingShortDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(@RequestHeader(USER_ID) Long userId,
+                                                      @RequestBody List<BookingShortDto> bookingShortDtos) {
+        return bookingService.createBookings(userId, bookingShortDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto updateStatus(@RequestHeader(USER_ID) Long userId,
                                    @PathVariable Long bookingId,
@@ -41,18 +60,56 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getUsersBookings(@RequestHeader(USER_ID) Long userId,
-                                             @RequestParam(required = false, defaultValue = "ALL") String state,
-                                             @RequestParam(defaultValue = "0", required = false) Integer from,
-                                             @RequestParam(defaultValue = "10", required = false) Integer size) {
-        return bookingService.getUsersBookings(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getUsersBookings(@RequestHeader(USER_ID) Long userId,
+                                                             @RequestParam(required = false, defaultValue = "ALL") String state,
+                                                             @RequestParam(defaultValue = "0", required = false) Integer from,
+                                                             @RequestParam(defaultValue = "10", required = false) Integer size,
+                                                             @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return withNextCursor(bookingService.getUsersBookings(userId, state, from, size), size);
+        }
+        return withNextCursor(bookingService.getUsersBookingsAfter(userId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnersBookings(@RequestHeader(USER_ID) Long userId,
-                                              @RequestParam(required = false, defaultValue = "ALL") String state,
-                                              @RequestParam(defaultValue = "0", required = false) Integer from,
-                                              @RequestParam(defaultValue = "10", required = false) Integer size) {
-        return bookingService.getOwnersBookings(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getOwnersBookings(@RequestHeader(USER_ID) Long userId,
+                                                              @RequestParam(required = false, defaultValue = "ALL") String state,
+                                                              @RequestParam(defaultValue = "0", required = false) Integer from,
+                                                              @RequestParam(defaultValue = "10", required = false) Integer size,
+                                                              @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return withNextCursor(bookingService.getOwnersBookings(userId, state, from, size), size);
+        }
+        return withNextCursor(bookingService.getOwnersBookingsAfter(userId, state, cursor, size));
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnersBookings(@RequestHeader(USER_ID) Long userId,
+                                     @RequestParam(defaultValue = "ndjson", required = false) String format,
+                                     HttpServletResponse response) throws IOException {
+        TransferFormat transferFormat = TransferFormat.fromName(format);
+        bookingExportService.checkOwner(userId);
+        response.setContentType(transferFormat.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        bookingExportService.exportOwnersBookings(userId, response.getOutputStream(), transferFormat);
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR, BookingCursor.of(bookings.get(bookings.size() - 1)).encode())
+                .body(bookings);
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(Slice<BookingDto> bookings) {
+        if (!bookings.hasNext()) {
+            return ResponseEntity.ok(bookings.getContent());
+        }
+        List<BookingDto> content = bookings.getContent();
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR, BookingCursor.of(content.get(content.size() - 1)).encode())
+                .body(content);
     }
 }
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AVL tree of booking intervals ordered by start, every node also keeps the
+ * latest end in its subtree so that whole subtrees ending before a window
+ * are skipped. Intervals are half-open: a booking ending at 12:00 does not
+ * overlap one starting at 12:00. Not thread-safe.
+ */
+class IntervalTree {
+    private static final Comparator<BookingInterval> ORDER = Comparator
+            .comparing(BookingInterval::getStart)
+            .thenComparing(BookingInterval::getBookingId);
+
+    private final Map<Long, BookingInterval> intervals = new HashMap<>();
+    private Node root;
+
+    void add(BookingInterval interval) {
+        remove(interval.getBookingId());
+        root = insert(root, interval);
+        intervals.put(interval.getBookingId(), interval);
+    }
+
+    void remove(Long bookingId) {
+        BookingInterval interval = intervals.remove(bookingId);
+        if (interval != null) {
+            root = delete(root, interval);
+        }
+    }
+
+    int size() {
+        return intervals.size();
+    }
+
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        Node node = root;
+        while (node != null && node.maxEnd.isAfter(from)) {
+            if (node.interval.overlaps(from, to)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(from)) {
+                // an interval in the left subtree ends after from; if it still does
+                // not overlap it starts at or after to, and so does the right subtree
+                node = node.left;
+            } else if (node.interval.getStart().isBefore(to)) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    List<BookingInterval> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<BookingInterval> found = new ArrayList<>();
+        collect(root, from, to, found);
+        return found;
+    }
+
+    private static void collect(Node node, LocalDateTime from, LocalDateTime to, List<BookingInterval> found) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        collect(node.left, from, to, found);
+        if (node.interval.overlaps(from, to)) {
+            found.add(node.interval);
+        }
+        if (node.interval.getStart().isBefore(to)) {
+            collect(node.right, from, to, found);
+        }
+    }
+
+    private static Node insert(Node node, BookingInterval interval) {
+        if (node == null) {
+            return new Node(interval);
+        }
+        if (ORDER.compare(interval, node.interval) < 0) {
+            node.left = insert(node.left, interval);
+        } else {
+            node.right = insert(node.right, interval);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, BookingInterval interval) {
+        if (node == null) {
+            return null;
+        }
+        int compare = ORDER.compare(interval, node.interval);
+        if (compare < 0) {
+            node.left = delete(node.left, interval);
+        } else if (compare > 0) {
+            node.right = delete(node.right, interval);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.interval = successor.interval;
+            node.right = delete(node.right, successor.interval);
+        }
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = node.interval.getEnd();
+        if (node.left != null && node.left.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.right.maxEnd;
+        }
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static class Node {
+        private BookingInterval interval;
+        private LocalDateTime maxEnd;
+        private int height;
+        private Node left;
+        private Node right;
+
+        private Node(BookingInterval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.getEnd();
+            this.height = 1;
+        }
+    }
+}
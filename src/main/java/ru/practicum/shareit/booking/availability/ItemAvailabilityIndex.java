@@ -0,0 +1,219 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.datasource.PrimaryReads;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Waiting and approved bookings of recently used items held in an
+ * {@link IntervalTree}. The tree of an item is loaded from the database on first
+ * use and is then kept up to date by the booking service after each commit.
+ * A tree only holds bookings that had not ended when it was loaded, so
+ * questions about periods starting in the past go to the database; free items
+ * keep an empty tree. At most {@code maxSize} trees are
+ * held, least recently used first out, and trees older than {@code ttl} are
+ * reloaded. Only bookings changed through this instance reach the trees, so an
+ * answer may be up to {@code ttl} stale and booking decisions confirm it in
+ * the database. Loading and updates of an item share a striped lock, so an
+ * update waits for a load in progress instead of being lost, and no thread
+ * holds a shared lock while it waits on the database.
+ */
+@Component
+public class ItemAvailabilityIndex {
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private static final int LOAD_STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+    private final PrimaryReads primaryReads;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> trees = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Lock[] loadLocks = newLocks();
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 PrimaryReads primaryReads,
+                                 @Value("${shareit.availability-index.max-size:10000}") int maxSize,
+                                 @Value("${shareit.availability-index.ttl:PT5M}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.primaryReads = primaryReads;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean isBooked(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(LocalDateTime.now())) {
+            return !findInDatabase(itemId, from, to).isEmpty();
+        }
+        IntervalTree tree = tree(itemId);
+        synchronized (tree) {
+            return tree.overlaps(from, to);
+        }
+    }
+
+    /**
+     * Answers from the tree only if it is already loaded and never goes to the
+     * database, for callers that confirm the answer themselves.
+     */
+    public boolean isLoadedAsBooked(Long itemId, LocalDateTime from, LocalDateTime to) {
+        IntervalTree tree = get(itemId);
+        if (tree == null) {
+            return false;
+        }
+        synchronized (tree) {
+            return tree.overlaps(from, to);
+        }
+    }
+
+    public List<BookingInterval> findBooked(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(LocalDateTime.now())) {
+            return findInDatabase(itemId, from, to);
+        }
+        IntervalTree tree = tree(itemId);
+        synchronized (tree) {
+            return tree.findOverlapping(from, to);
+        }
+    }
+
+    /**
+     * Called after a booking is committed. Items that are not loaded yet are
+     * skipped, they will see the booking when they are read from the database.
+     */
+    public void add(Long itemId, BookingInterval interval) {
+        Lock lock = loadLock(itemId);
+        lock.lock();
+        try {
+            IntervalTree tree = get(itemId);
+            if (tree != null) {
+                synchronized (tree) {
+                    tree.add(interval);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called after a rejection is committed, so a load running concurrently
+     * either finishes first and is corrected or already reads the new status.
+     */
+    public void remove(Long itemId, Long bookingId) {
+        Lock lock = loadLock(itemId);
+        lock.lock();
+        try {
+            IntervalTree tree = get(itemId);
+            if (tree != null) {
+                synchronized (tree) {
+                    tree.remove(bookingId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the tree of an item found to disagree with the database, the next
+     * read loads it again.
+     */
+    public synchronized void evict(Long itemId) {
+        trees.remove(itemId);
+    }
+
+    public synchronized void clear() {
+        trees.clear();
+    }
+
+    public synchronized int size() {
+        return trees.size();
+    }
+
+    private IntervalTree tree(Long itemId) {
+        IntervalTree tree = get(itemId);
+        if (tree != null) {
+            return tree;
+        }
+        Lock lock = loadLock(itemId);
+        lock.lock();
+        try {
+            tree = get(itemId);
+            if (tree == null) {
+                tree = load(itemId);
+                put(itemId, tree);
+            }
+            return tree;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private synchronized IntervalTree get(Long itemId) {
+        Entry entry = trees.get(itemId);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt >= ttlNanos) {
+            trees.remove(itemId);
+            return null;
+        }
+        return entry.tree;
+    }
+
+    private synchronized void put(Long itemId, IntervalTree tree) {
+        trees.put(itemId, new Entry(tree, System.nanoTime()));
+        Iterator<Map.Entry<Long, Entry>> eldest = trees.entrySet().iterator();
+        while (trees.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private Lock loadLock(Long itemId) {
+        return loadLocks[Math.floorMod(Objects.hashCode(itemId), LOAD_STRIPES)];
+    }
+
+    private static Lock[] newLocks() {
+        Lock[] locks = new Lock[LOAD_STRIPES];
+        for (int i = 0; i < LOAD_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private IntervalTree load(Long itemId) {
+        List<BookingInterval> intervals = primaryReads.read(() ->
+                bookingRepository.findIntervalsEndingAfter(itemId, ACTIVE_STATUSES, LocalDateTime.now()));
+        IntervalTree tree = new IntervalTree();
+        intervals.forEach(tree::add);
+        return tree;
+    }
+
+    private List<BookingInterval> findInDatabase(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return primaryReads.read(() ->
+                bookingRepository.findOverlappingIntervals(itemId, ACTIVE_STATUSES, from, to));
+    }
+
+    private static class Entry {
+        private final IntervalTree tree;
+        private final long loadedAt;
+
+        private Entry(IntervalTree tree, long loadedAt) {
+            this.tree = tree;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
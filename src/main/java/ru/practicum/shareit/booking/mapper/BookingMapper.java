@@ -2,8 +2,11 @@ package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingReservationDto;
+import ru.practicum.shareit.booking.dto.BookingRowDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
 public class BookingMapper {
@@ -18,6 +21,27 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingDto toBookingDto(BookingRowDto bookingRowDto) {
+        return BookingDto.builder()
+                .id(bookingRowDto.getId())
+                .item(ItemDto.builder()
+                        .id(bookingRowDto.getItemId())
+                        .name(bookingRowDto.getItemName())
+                        .description(bookingRowDto.getItemDescription())
+                        .available(bookingRowDto.getItemAvailable())
+                        .requestId(bookingRowDto.getItemRequestId())
+                        .build())
+                .start(bookingRowDto.getStart())
+                .end(bookingRowDto.getEnd())
+                .booker(UserDto.builder()
+                        .id(bookingRowDto.getBookerId())
+                        .name(bookingRowDto.getBookerName())
+                        .email(bookingRowDto.getBookerEmail())
+                        .build())
+                .status(bookingRowDto.getStatus())
+                .build();
+    }
+
     public static BookingReservationDto toBookingReservationDto(Booking booking) {
         return BookingReservationDto.builder()
                 .id(booking.getId())
@@ -1,47 +1,226 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.booking.dto.BookingRowDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    Page<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId, PageRequest pageRequest);
-
-    Page<Booking> findAllByBookerIdAndBookingStatusOrderByStartDesc(Long bookerId, BookingStatus bookingStatus, PageRequest pageRequest);
-
-    Page<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start, LocalDateTime end, PageRequest pageRequest);
-
-    Page<Booking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime end, PageRequest pageRequest);
-
-    Page<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start, PageRequest pageRequest);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
-    Page<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId, PageRequest pageRequest);
-
-    Page<Booking> findAllByItemOwnerIdAndBookingStatusOrderByStartDesc(Long ownerId, BookingStatus bookingStatus, PageRequest pageRequest);
-
-    Page<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long ownerId, LocalDateTime start, LocalDateTime end, PageRequest pageRequest);
-
-    Page<Booking> findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(Long ownerId, LocalDateTime end, PageRequest pageRequest);
-
-    Page<Booking> findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(Long ownerId, LocalDateTime start, PageRequest pageRequest);
-
-    List<Booking> findAllByItemOwnerIdAndBookingStatusIsAndStartBefore(Long ownerId,
-                                                                       BookingStatus bookingStatus,
-                                                                       LocalDateTime localDateTime,
-                                                                       Sort sort);
+public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findAllByItemOwnerIdAndBookingStatusIsAndStartAfter(Long ownerId,
-                                                                      BookingStatus bookingStatus,
-                                                                      LocalDateTime localDateTime,
-                                                                      Sort sort);
+    String BOOKING_ROWS = "select new ru.practicum.shareit.booking.dto.BookingRowDto(b.id, b.start, b.end, " +
+            "b.bookingStatus, i.id, i.name, i.description, i.available, r.id, u.id, u.name, u.email) " +
+            "from Booking as b join b.item as i left join i.request as r join b.booker as u ";
+
+    @Query(BOOKING_ROWS +
+            "where b.booker.id = ?1 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findBookerBookings(Long bookerId, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where b.booker.id = ?1 " +
+            "and b.bookingStatus = ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findBookerBookingsByStatus(Long bookerId, BookingStatus bookingStatus, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where b.booker.id = ?1 " +
+            "and b.start < ?2 and b.end > ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findBookerCurrentBookings(Long bookerId, LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where b.booker.id = ?1 " +
+            "and b.end < ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findBookerPastBookings(Long bookerId, LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where b.booker.id = ?1 " +
+            "and b.start > ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findBookerFutureBookings(Long bookerId, LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where i.owner.id = ?1 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findOwnerBookings(Long ownerId, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where i.owner.id = ?1 " +
+            "and b.bookingStatus = ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findOwnerBookingsByStatus(Long ownerId, BookingStatus bookingStatus, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where i.owner.id = ?1 " +
+            "and b.start < ?2 and b.end > ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findOwnerCurrentBookings(Long ownerId, LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where i.owner.id = ?1 " +
+            "and b.end < ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findOwnerPastBookings(Long ownerId, LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where i.owner.id = ?1 " +
+            "and b.start > ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findOwnerFutureBookings(Long ownerId, LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where b.booker.id = ?1 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findBookerBookingsBefore(Long bookerId, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where b.booker.id = ?1 " +
+            "and b.bookingStatus = ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findBookerBookingsByStatusBefore(Long bookerId, BookingStatus bookingStatus, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where b.booker.id = ?1 " +
+            "and b.start < ?2 and b.end > ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findBookerCurrentBookingsBefore(Long bookerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where b.booker.id = ?1 " +
+            "and b.end < ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findBookerPastBookingsBefore(Long bookerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where b.booker.id = ?1 " +
+            "and b.start > ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findBookerFutureBookingsBefore(Long bookerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where i.owner.id = ?1 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findOwnerBookingsBefore(Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where i.owner.id = ?1 " +
+            "and b.bookingStatus = ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findOwnerBookingsByStatusBefore(Long ownerId, BookingStatus bookingStatus, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where i.owner.id = ?1 " +
+            "and b.start < ?2 and b.end > ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findOwnerCurrentBookingsBefore(Long ownerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where i.owner.id = ?1 " +
+            "and b.end < ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findOwnerPastBookingsBefore(Long ownerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(BOOKING_ROWS +
+            "where i.owner.id = ?1 " +
+            "and b.start > ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingRowDto> findOwnerFutureBookingsBefore(Long ownerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long bookingId);
+
+    Optional<Booking> findFirstByItemIdAndBookingStatusIsAndStartBeforeOrderByStartDesc(Long itemId,
+                                                                                       BookingStatus bookingStatus,
+                                                                                       LocalDateTime localDateTime);
+
+    Optional<Booking> findFirstByItemIdAndBookingStatusIsAndStartAfterOrderByStartAsc(Long itemId,
+                                                                                     BookingStatus bookingStatus,
+                                                                                     LocalDateTime localDateTime);
+
+    @Query("select b from Booking as b " +
+            "where b.item.id in ?1 " +
+            "and b.bookingStatus = ?2 " +
+            "and b.start = (select max(other.start) from Booking as other " +
+            "where other.item.id = b.item.id and other.bookingStatus = ?2 and other.start < ?3)")
+    List<Booking> findLastBookingsByItemIdIn(List<Long> itemIds, BookingStatus bookingStatus, LocalDateTime now);
+
+    @Query("select b from Booking as b " +
+            "where b.item.id in ?1 " +
+            "and b.bookingStatus = ?2 " +
+            "and b.start = (select min(other.start) from Booking as other " +
+            "where other.item.id = b.item.id and other.bookingStatus = ?2 and other.start > ?3)")
+    List<Booking> findNextBookingsByItemIdIn(List<Long> itemIds, BookingStatus bookingStatus, LocalDateTime now);
+
+    @Query("select count(b) > 0 from Booking as b " +
+            "where b.item.id = ?1 " +
+            "and b.bookingStatus in ?2 " +
+            "and b.start < ?4 and b.end > ?3")
+    boolean existsOverlapping(Long itemId, List<BookingStatus> bookingStatuses, LocalDateTime start, LocalDateTime end);
+
+    @Query("select distinct b.item.id from Booking as b " +
+            "where b.item.id in ?1 " +
+            "and b.bookingStatus in ?2 " +
+            "and b.start < ?4 and b.end > ?3")
+    List<Long> findBookedItemIds(List<Long> itemIds, List<BookingStatus> bookingStatuses, LocalDateTime start,
+                                 LocalDateTime end);
+
+    @Query("select b from Booking as b " +
+            "where b.item.id in ?1 " +
+            "and b.bookingStatus in ?2 " +
+            "and b.start < ?4 and b.end > ?3")
+    List<Booking> findAllOverlapping(List<Long> itemIds, List<BookingStatus> bookingStatuses, LocalDateTime start,
+                                     LocalDateTime end);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingExportDto(b.id, b.start, b.end, b.bookingStatus, " +
+            "i.id, i.name, b.booker.id) " +
+            "from Booking as b join b.item as i " +
+            "where i.owner.id = ?1 " +
+            "order by b.start desc, b.id desc")
+    Stream<BookingExportDto> streamAllByItemOwnerId(Long ownerId);
+
+    @Query("select new ru.practicum.shareit.booking.availability.BookingInterval(b.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.item.id = ?1 " +
+            "and b.bookingStatus in ?2 " +
+            "and b.end > ?3")
+    List<BookingInterval> findIntervalsEndingAfter(Long itemId, List<BookingStatus> bookingStatuses,
+                                                   LocalDateTime after);
+
+    @Query("select new ru.practicum.shareit.booking.availability.BookingInterval(b.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.item.id = ?1 " +
+            "and b.bookingStatus in ?2 " +
+            "and b.start < ?4 and b.end > ?3")
+    List<BookingInterval> findOverlappingIntervals(Long itemId, List<BookingStatus> bookingStatuses,
+                                                   LocalDateTime start, LocalDateTime end);
 
     Optional<Booking> findTopByItemIdAndBookerIdAndEndIsBeforeAndBookingStatusIs(Long itemId,
                                                                                  Long bookerId,
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 
@@ -8,6 +10,8 @@ import java.util.List;
 public interface BookingService {
     BookingDto createBooking(Long userId, BookingShortDto bookingShortDto);
 
+    List<BookingBatchResultDto> createBookings(Long userId, List<BookingShortDto> bookingShortDtos);
+
     BookingDto updateStatus(Long userId, Long bookingId, Boolean isApproved);
 
     BookingDto getBooking(Long userId, Long bookingId);
@@ -16,4 +20,8 @@ public interface BookingService {
 
     List<BookingDto> getOwnersBookings(Long userId, String state, Integer from, Integer size);
 
+    Slice<BookingDto> getUsersBookingsAfter(Long userId, String state, String cursor, Integer size);
+
+    Slice<BookingDto> getOwnersBookingsAfter(Long userId, String state, String cursor, Integer size);
+
 }
@@ -2,10 +2,19 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRowDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
@@ -15,48 +24,74 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final int BATCH_MAX_SIZE = 1000;
+
+    private static final int BATCH_LOCKED_STRIPES = 16;
+
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
+    private final ItemLocks itemLocks;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final TransactionTemplate transactionTemplate;
 
+    // createBooking and createBookings open their own transaction, it has to be committed
+    // before the item lock is released
     @Override
     public BookingDto createBooking(Long userId, BookingShortDto bookingShortDto) {
         log.info("booking create");
 
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("user not found"));
 
-        Item item = itemRepository.findById(bookingShortDto.getItemId())
-                .orElseThrow(() -> new ItemNotFoundException("item not found"));
+        Long itemId = bookingShortDto.getItemId();
+        return itemLocks.withLock(itemId, () -> {
+            // a loaded tree only hints, the overlap query in reserve decides
+            boolean indexedAsBooked = itemId != null && isValidPeriod(bookingShortDto)
+                    && itemAvailabilityIndex.isLoadedAsBooked(itemId, bookingShortDto.getStart(),
+                    bookingShortDto.getEnd());
+            BookingDto bookingDto = transactionTemplate.execute(status -> reserve(user, bookingShortDto));
+            if (indexedAsBooked) {
+                itemAvailabilityIndex.evict(itemId);
+            } else {
+                itemAvailabilityIndex.add(itemId,
+                        new BookingInterval(bookingDto.getId(), bookingDto.getStart(), bookingDto.getEnd()));
+            }
+            return bookingDto;
+        });
+    }
 
-        User owner = item.getOwner();
+    private boolean isValidPeriod(BookingShortDto bookingShortDto) {
+        return bookingShortDto.getStart() != null &&
+                bookingShortDto.getEnd() != null &&
+                !bookingShortDto.getStart().isBefore(LocalDateTime.now()) &&
+                bookingShortDto.getStart().isBefore(bookingShortDto.getEnd());
+    }
 
-        if (owner.getId().equals(userId)) {
-            throw new UserNotFoundException("user id " + userId + " not found");
-        }
+    private BookingDto reserve(User user, BookingShortDto bookingShortDto) {
+        Item item = itemRepository.findByIdForUpdate(bookingShortDto.getItemId())
+                .orElseThrow(() -> new ItemNotFoundException("item not found"));
 
-        if (!item.getAvailable()) {
-            throw new NotAvailableException("item " + item.getName() + " not available");
-        }
+        checkBookable(user, item, bookingShortDto);
 
-        if (bookingShortDto.getStart() == null ||
-                bookingShortDto.getEnd() == null ||
-                bookingShortDto.getStart().isBefore(LocalDateTime.now()) ||
-                bookingShortDto.getStart().isAfter(bookingShortDto.getEnd()) ||
-                bookingShortDto.getStart().isEqual(bookingShortDto.getEnd())) {
-            throw new WrongDateException("date error exception");
+        if (bookingRepository.existsOverlapping(item.getId(), ItemAvailabilityIndex.ACTIVE_STATUSES,
+                bookingShortDto.getStart(), bookingShortDto.getEnd())) {
+            throw new NotAvailableException("item id " + item.getId() + " already booked for these dates");
         }
         Booking booking = Booking.builder()
                 .item(item)
@@ -72,11 +107,160 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    public List<BookingBatchResultDto> createBookings(Long userId, List<BookingShortDto> bookingShortDtos) {
+        log.info("booking batch create");
+        if (bookingShortDtos.size() > BATCH_MAX_SIZE) {
+            throw new NotAllowedActionException("batch size exceeds " + BATCH_MAX_SIZE);
+        }
+        User user = userCache.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("user not found"));
+        List<Long> itemIds = bookingShortDtos.stream()
+                .filter(Objects::nonNull)
+                .map(BookingShortDto::getItemId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+
+        // each group commits on its own while holding only its stripes; elements
+        // without an item only get an error and go with the first group. A group that
+        // fails to save is rolled back and reports all its elements as failed, the
+        // groups committed before it stay
+        List<List<Long>> groups = itemLocks.partition(itemIds, BATCH_LOCKED_STRIPES);
+        if (groups.isEmpty()) {
+            groups = List.of(List.of());
+        }
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingShortDtos.size()];
+        for (int group = 0; group < groups.size(); group++) {
+            List<Long> groupItemIds = groups.get(group);
+            Set<Long> groupItems = new HashSet<>(groupItemIds);
+            boolean first = group == 0;
+            List<Integer> positions = IntStream.range(0, bookingShortDtos.size())
+                    .filter(i -> {
+                        BookingShortDto bookingShortDto = bookingShortDtos.get(i);
+                        Long itemId = bookingShortDto == null ? null : bookingShortDto.getItemId();
+                        return itemId == null ? first : groupItems.contains(itemId);
+                    })
+                    .boxed()
+                    .collect(Collectors.toList());
+            itemLocks.withLocks(groupItemIds, () -> {
+                List<BookingBatchResultDto> groupResults;
+                try {
+                    groupResults = transactionTemplate.execute(status ->
+                            reserveAll(user, groupItemIds, positions, bookingShortDtos));
+                } catch (DataAccessException | TransactionException e) {
+                    log.warn("batch group of {} bookings of user {} failed: {}", positions.size(), userId,
+                            e.getMessage());
+                    groupResults = positions.stream()
+                            .map(position -> BookingBatchResultDto.builder()
+                                    .index(position)
+                                    .error("booking could not be saved")
+                                    .build())
+                            .collect(Collectors.toList());
+                }
+                groupResults.forEach(result -> {
+                    results[result.getIndex()] = result;
+                    BookingDto bookingDto = result.getBooking();
+                    if (bookingDto != null) {
+                        itemAvailabilityIndex.add(bookingDto.getItem().getId(),
+                                new BookingInterval(bookingDto.getId(), bookingDto.getStart(), bookingDto.getEnd()));
+                    }
+                });
+                return null;
+            });
+        }
+        return Arrays.asList(results);
+    }
+
+    private List<BookingBatchResultDto> reserveAll(User user, List<Long> itemIds, List<Integer> positions,
+                                                   List<BookingShortDto> bookingShortDtos) {
+        List<BookingShortDto> groupBookings = positions.stream()
+                .map(bookingShortDtos::get)
+                .collect(Collectors.toList());
+        Map<Long, Item> items = itemIds.isEmpty() ? new HashMap<>() : itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<BookingInterval>> taken = findTaken(items.keySet(), groupBookings);
+
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < groupBookings.size(); i++) {
+            BookingShortDto bookingShortDto = groupBookings.get(i);
+            BookingBatchResultDto result = BookingBatchResultDto.builder().index(positions.get(i)).build();
+            results.add(result);
+            if (bookingShortDto == null) {
+                result.setError("booking is empty");
+                bookings.add(null);
+                continue;
+            }
+            try {
+                Item item = Optional.ofNullable(items.get(bookingShortDto.getItemId()))
+                        .orElseThrow(() -> new ItemNotFoundException("item not found"));
+                checkBookable(user, item, bookingShortDto);
+                List<BookingInterval> itemTaken = taken.computeIfAbsent(item.getId(), itemId -> new ArrayList<>());
+                if (itemTaken.stream().anyMatch(interval ->
+                        interval.overlaps(bookingShortDto.getStart(), bookingShortDto.getEnd()))) {
+                    throw new NotAvailableException("item id " + item.getId() + " already booked for these dates");
+                }
+                itemTaken.add(new BookingInterval(null, bookingShortDto.getStart(), bookingShortDto.getEnd()));
+                bookings.add(Booking.builder()
+                        .item(item)
+                        .booker(user)
+                        .start(bookingShortDto.getStart())
+                        .end(bookingShortDto.getEnd())
+                        .bookingStatus(BookingStatus.WAITING)
+                        .build());
+            } catch (ItemNotFoundException | UserNotFoundException | NotAvailableException | WrongDateException e) {
+                result.setError(e.getMessage());
+                bookings.add(null);
+            }
+        }
+        bookingRepository.saveAll(bookings.stream().filter(Objects::nonNull).collect(Collectors.toList()));
+        for (int i = 0; i < bookings.size(); i++) {
+            if (bookings.get(i) != null) {
+                results.get(i).setBooking(BookingMapper.toBookingDto(bookings.get(i)));
+            }
+        }
+        return results;
+    }
+
+    private Map<Long, List<BookingInterval>> findTaken(Collection<Long> itemIds,
+                                                       List<BookingShortDto> bookingShortDtos) {
+        List<BookingShortDto> periods = bookingShortDtos.stream()
+                .filter(bookingShortDto -> bookingShortDto != null && isValidPeriod(bookingShortDto))
+                .collect(Collectors.toList());
+        if (itemIds.isEmpty() || periods.isEmpty()) {
+            return new HashMap<>();
+        }
+        LocalDateTime start = periods.stream().map(BookingShortDto::getStart).min(Comparator.naturalOrder()).get();
+        LocalDateTime end = periods.stream().map(BookingShortDto::getEnd).max(Comparator.naturalOrder()).get();
+        return bookingRepository.findAllOverlapping(new ArrayList<>(itemIds), ItemAvailabilityIndex.ACTIVE_STATUSES,
+                        start, end).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(),
+                        Collectors.mapping(booking -> new BookingInterval(booking.getId(), booking.getStart(),
+                                booking.getEnd()), Collectors.toList())));
+    }
+
+    private void checkBookable(User user, Item item, BookingShortDto bookingShortDto) {
+        if (item.getOwner().getId().equals(user.getId())) {
+            throw new UserNotFoundException("user id " + user.getId() + " not found");
+        }
+
+        if (!item.getAvailable()) {
+            throw new NotAvailableException("item " + item.getName() + " not available");
+        }
+
+        if (!isValidPeriod(bookingShortDto)) {
+            throw new WrongDateException("date error exception");
+        }
+    }
+
+    @Override
+    @Transactional
     public BookingDto updateStatus(Long userId, Long bookingId, Boolean isApproved) {
         log.info("booking update status");
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("user not found"));
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("booking not found"));
         if (booking.getBookingStatus().equals(BookingStatus.APPROVED)
                 || booking.getBookingStatus().equals(BookingStatus.REJECTED)) {
@@ -89,6 +273,10 @@ public class BookingServiceImpl implements BookingService {
         BookingStatus bookingStatus = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
         booking.setBookingStatus(bookingStatus);
         bookingRepository.save(booking);
+        if (!isApproved) {
+            Long itemId = booking.getItem().getId();
+            AfterCommit.run(() -> itemAvailabilityIndex.remove(itemId, bookingId));
+        }
 
         BookingDto bookingDto = BookingMapper.toBookingDto(booking);
 
@@ -100,11 +288,13 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingDto getBooking(Long userId, Long bookingId) {
         log.info("get booking");
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("user not found"));
-        Booking booking = bookingRepository.findById(bookingId)
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("user not found");
+        }
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("booking not found"));
         Item item = booking.getItem();
         User owner = item.getOwner();
@@ -116,89 +306,161 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getUsersBookings(Long userId, String value, Integer from, Integer size) {
         State state = validateState(value);
         if (from < 0 || size < 1) {
             throw new IncorrectPaginationException("pagination error");
         }
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("user not found"));
-        Page<Booking> foundBooking;
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("user not found");
+        }
+        Slice<BookingRowDto> foundBooking;
         PageRequest pageRequest = PageRequest.of(from / size, size);
         switch (state) {
             case FUTURE:
-                foundBooking = bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(),
-                        pageRequest);
+                foundBooking = bookingRepository.findBookerFutureBookings(userId, LocalDateTime.now(), pageRequest);
                 break;
             case CURRENT:
-                foundBooking = bookingRepository
-                        .findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(userId,
-                                LocalDateTime.now(),
-                                LocalDateTime.now(),
-                                pageRequest);
+                foundBooking = bookingRepository.findBookerCurrentBookings(userId, LocalDateTime.now(), pageRequest);
                 break;
             case PAST:
-                foundBooking = bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(userId,
-                        LocalDateTime.now(), pageRequest);
+                foundBooking = bookingRepository.findBookerPastBookings(userId, LocalDateTime.now(), pageRequest);
                 break;
             case WAITING:
-                foundBooking = bookingRepository.findAllByBookerIdAndBookingStatusOrderByStartDesc(userId,
-                        BookingStatus.WAITING, pageRequest);
+                foundBooking = bookingRepository.findBookerBookingsByStatus(userId, BookingStatus.WAITING,
+                        pageRequest);
                 break;
             case REJECTED:
-                foundBooking = bookingRepository.findAllByBookerIdAndBookingStatusOrderByStartDesc(userId,
-                        BookingStatus.REJECTED, pageRequest);
+                foundBooking = bookingRepository.findBookerBookingsByStatus(userId, BookingStatus.REJECTED,
+                        pageRequest);
                 break;
             default:
-                foundBooking = bookingRepository.findAllByBookerIdOrderByStartDesc(userId, pageRequest);
+                foundBooking = bookingRepository.findBookerBookings(userId, pageRequest);
         }
         return foundBooking.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getOwnersBookings(Long userId, String value, Integer from, Integer size) {
         State state = validateState(value);
         if (from < 0 || size < 1) {
             throw new IncorrectPaginationException("pagination error");
         }
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("user not found"));
-        Page<Booking> foundBooking;
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("user not found");
+        }
+        Slice<BookingRowDto> foundBooking;
         PageRequest pageRequest = PageRequest.of(from / size, size);
         switch (state) {
             case FUTURE:
-                foundBooking = bookingRepository.findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(), pageRequest);
+                foundBooking = bookingRepository.findOwnerFutureBookings(userId, LocalDateTime.now(), pageRequest);
                 break;
             case CURRENT:
-                foundBooking = bookingRepository
-                        .findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(userId,
-                                LocalDateTime.now(),
-                                LocalDateTime.now(),
-                                pageRequest);
+                foundBooking = bookingRepository.findOwnerCurrentBookings(userId, LocalDateTime.now(), pageRequest);
                 break;
             case PAST:
-                foundBooking = bookingRepository.findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(userId,
-                        LocalDateTime.now(),
-                        pageRequest);
+                foundBooking = bookingRepository.findOwnerPastBookings(userId, LocalDateTime.now(), pageRequest);
                 break;
             case WAITING:
-                foundBooking = bookingRepository.findAllByItemOwnerIdAndBookingStatusOrderByStartDesc(userId,
-                        BookingStatus.WAITING,
+                foundBooking = bookingRepository.findOwnerBookingsByStatus(userId, BookingStatus.WAITING,
                         pageRequest);
                 break;
             case REJECTED:
-                foundBooking = bookingRepository.findAllByItemOwnerIdAndBookingStatusOrderByStartDesc(userId,
-                        BookingStatus.REJECTED, pageRequest);
+                foundBooking = bookingRepository.findOwnerBookingsByStatus(userId, BookingStatus.REJECTED,
+                        pageRequest);
                 break;
             default:
-                log.info("default get bookings");
-                foundBooking = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, pageRequest);
+                foundBooking = bookingRepository.findOwnerBookings(userId, pageRequest);
         }
         return foundBooking.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookingDto> getUsersBookingsAfter(Long userId, String value, String cursor, Integer size) {
+        State state = validateState(value);
+        if (size < 1) {
+            throw new IncorrectPaginationException("pagination error");
+        }
+        BookingCursor bookingCursor = BookingCursor.decode(cursor);
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("user not found");
+        }
+        Slice<BookingRowDto> foundBooking;
+        PageRequest pageRequest = PageRequest.of(0, size);
+        LocalDateTime start = bookingCursor.getStart();
+        Long id = bookingCursor.getId();
+        switch (state) {
+            case FUTURE:
+                foundBooking = bookingRepository.findBookerFutureBookingsBefore(userId,
+                        LocalDateTime.now(), start, id, pageRequest);
+                break;
+            case CURRENT:
+                foundBooking = bookingRepository.findBookerCurrentBookingsBefore(userId,
+                        LocalDateTime.now(), start, id, pageRequest);
+                break;
+            case PAST:
+                foundBooking = bookingRepository.findBookerPastBookingsBefore(userId,
+                        LocalDateTime.now(), start, id, pageRequest);
+                break;
+            case WAITING:
+                foundBooking = bookingRepository.findBookerBookingsByStatusBefore(userId,
+                        BookingStatus.WAITING, start, id, pageRequest);
+                break;
+            case REJECTED:
+                foundBooking = bookingRepository.findBookerBookingsByStatusBefore(userId,
+                        BookingStatus.REJECTED, start, id, pageRequest);
+                break;
+            default:
+                foundBooking = bookingRepository.findBookerBookingsBefore(userId, start, id, pageRequest);
+        }
+        return foundBooking.map(BookingMapper::toBookingDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookingDto> getOwnersBookingsAfter(Long userId, String value, String cursor, Integer size) {
+        State state = validateState(value);
+        if (size < 1) {
+            throw new IncorrectPaginationException("pagination error");
+        }
+        BookingCursor bookingCursor = BookingCursor.decode(cursor);
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("user not found");
+        }
+        Slice<BookingRowDto> foundBooking;
+        PageRequest pageRequest = PageRequest.of(0, size);
+        LocalDateTime start = bookingCursor.getStart();
+        Long id = bookingCursor.getId();
+        switch (state) {
+            case FUTURE:
+                foundBooking = bookingRepository.findOwnerFutureBookingsBefore(userId,
+                        LocalDateTime.now(), start, id, pageRequest);
+                break;
+            case CURRENT:
+                foundBooking = bookingRepository.findOwnerCurrentBookingsBefore(userId,
+                        LocalDateTime.now(), start, id, pageRequest);
+                break;
+            case PAST:
+                foundBooking = bookingRepository.findOwnerPastBookingsBefore(userId,
+                        LocalDateTime.now(), start, id, pageRequest);
+                break;
+            case WAITING:
+                foundBooking = bookingRepository.findOwnerBookingsByStatusBefore(userId,
+                        BookingStatus.WAITING, start, id, pageRequest);
+                break;
+            case REJECTED:
+                foundBooking = bookingRepository.findOwnerBookingsByStatusBefore(userId,
+                        BookingStatus.REJECTED, start, id, pageRequest);
+                break;
+            default:
+                foundBooking = bookingRepository.findOwnerBookingsBefore(userId, start, id, pageRequest);
+        }
+        return foundBooking.map(BookingMapper::toBookingDto);
+    }
+
     private State validateState(String value) throws InvalidStatusException {
         State state;
         try {
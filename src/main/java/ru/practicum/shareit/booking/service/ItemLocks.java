@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of locks shared by item id. Bookings of one item are reserved one
+ * at a time inside this instance, so only one request per item waits on the
+ * database row lock and holds a pooled connection while doing so.
+ */
+@Component
+public class ItemLocks {
+
+    private final Lock[] stripes;
+
+    public ItemLocks(@Value("${shareit.booking.lock-stripes:256}") int stripeCount) {
+        stripes = new Lock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(Long itemId, Supplier<T> action) {
+        Lock lock = stripes[stripe(itemId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the locks of all items in stripe order, so that two batches sharing
+     * items cannot deadlock.
+     */
+    public <T> T withLocks(Collection<Long> itemIds, Supplier<T> action) {
+        int[] taken = itemIds.stream().mapToInt(this::stripe).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int stripe : taken) {
+                stripes[stripe].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[taken[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Splits item ids into groups whose locks span at most {@code maxStripes}
+     * stripes, items sharing a stripe end up in the same group. A large batch
+     * locked group by group leaves the other stripes free for single bookings.
+     */
+    public List<List<Long>> partition(Collection<Long> itemIds, int maxStripes) {
+        Map<Integer, List<Long>> byStripe = new TreeMap<>();
+        itemIds.forEach(itemId -> byStripe.computeIfAbsent(stripe(itemId), stripe -> new ArrayList<>()).add(itemId));
+        List<List<Long>> groups = new ArrayList<>();
+        List<Long> group = new ArrayList<>();
+        int stripes = 0;
+        for (List<Long> stripeItemIds : byStripe.values()) {
+            if (stripes == maxStripes) {
+                groups.add(group);
+                group = new ArrayList<>();
+                stripes = 0;
+            }
+            group.addAll(stripeItemIds);
+            stripes++;
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    private int stripe(Long itemId) {
+        return Math.floorMod(Objects.hashCode(itemId), stripes.length);
+    }
+}
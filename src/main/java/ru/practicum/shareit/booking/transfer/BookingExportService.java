@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.transfer;
+
+import ru.practicum.shareit.transfer.TransferFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookingExportService {
+    void checkOwner(Long userId);
+
+    void exportOwnersBookings(Long userId, OutputStream output, TransferFormat format) throws IOException;
+}
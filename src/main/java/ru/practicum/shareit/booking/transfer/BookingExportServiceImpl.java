@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.transfer.CsvLine;
+import ru.practicum.shareit.transfer.TransferFormat;
+import ru.practicum.shareit.user.cache.UserCache;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole booking history of an owner, newest first. Rows come from a
+ * database cursor as projections, so neither the persistence context nor the
+ * heap grows with the number of bookings.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingExportServiceImpl implements BookingExportService {
+    private static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId";
+
+    private final UserCache userCache;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void checkOwner(Long userId) {
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("user not found");
+        }
+    }
+
+    @Override
+    public void exportOwnersBookings(Long userId, OutputStream output, TransferFormat format) throws IOException {
+        log.info("export owner bookings");
+        checkOwner(userId);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == TransferFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<BookingExportDto> bookings = bookingRepository.streamAllByItemOwnerId(userId)) {
+                    bookings.forEach(booking -> write(writer, booking, format));
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void write(Writer writer, BookingExportDto booking, TransferFormat format) {
+        try {
+            if (format == TransferFormat.CSV) {
+                writer.write(CsvLine.format(booking.getId(),
+                        DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(booking.getStart()),
+                        DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(booking.getEnd()),
+                        booking.getStatus(), booking.getItemId(), booking.getItemName(), booking.getBookerId()));
+            } else {
+                writer.write(objectMapper.writeValueAsString(booking));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
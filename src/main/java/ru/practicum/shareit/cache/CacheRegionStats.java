@@ -0,0 +1,41 @@
+package ru.practicum.shareit.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hit ratios of the second-level cache regions, read from Hibernate statistics.
+ * Counts only while {@code hibernate.generate_statistics} is on.
+ */
+@Component
+public class CacheRegionStats {
+
+    private final Statistics statistics;
+
+    public CacheRegionStats(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public Map<String, Double> hitRatios() {
+        Map<String, Double> hitRatios = new TreeMap<>();
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .forEach(region -> hitRatios.put(region, hitRatio(region)));
+        return hitRatios;
+    }
+
+    public double hitRatio(String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return 0;
+        }
+        long lookups = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return lookups == 0 ? 0 : (double) regionStatistics.getHitCount() / lookups;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/cache/regions")
+public class CacheRegionStatsController {
+    private final CacheRegionStats cacheRegionStats;
+
+    @GetMapping
+    public Map<String, Double> getHitRatios() {
+        return cacheRegionStats.hitRatios();
+    }
+}
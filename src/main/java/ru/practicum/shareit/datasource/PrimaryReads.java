@@ -0,0 +1,60 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs reads that fill long-lived in-memory caches on the primary database. A
+ * replica may lag behind, and a stale row kept in a cache would outlive the
+ * replication delay. Repository reads are read-only transactions and would go
+ * to the replica, so the read joins a read-write transaction, or suspends a
+ * read-only one for a read-write transaction of its own. Without a replica the
+ * read runs as is.
+ */
+@Component
+public class PrimaryReads {
+    private final TransactionTemplate joining;
+
+    private final TransactionTemplate separate;
+
+    @Autowired
+    public PrimaryReads(PlatformTransactionManager transactionManager,
+                        @Value("${shareit.datasource.replica.url:}") String replicaUrl) {
+        if (replicaUrl.isEmpty()) {
+            joining = null;
+            separate = null;
+        } else {
+            joining = new TransactionTemplate(transactionManager);
+            separate = new TransactionTemplate(transactionManager);
+            separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+    }
+
+    private PrimaryReads() {
+        joining = null;
+        separate = null;
+    }
+
+    /**
+     * Reads run in the caller's transaction, for setups with a single database.
+     */
+    public static PrimaryReads direct() {
+        return new PrimaryReads();
+    }
+
+    public <T> T read(Supplier<T> reader) {
+        if (joining == null) {
+            return reader.get();
+        }
+        TransactionTemplate template = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? separate : joining;
+        return template.execute(status -> reader.get());
+    }
+}
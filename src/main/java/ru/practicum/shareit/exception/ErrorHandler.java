@@ -83,4 +83,10 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleUnsupportedFormatException(final UnsupportedFormatException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
 }
\ No newline at end of file
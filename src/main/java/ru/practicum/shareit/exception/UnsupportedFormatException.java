@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class UnsupportedFormatException extends RuntimeException {
+    public UnsupportedFormatException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,25 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentShortDto;
 import ru.practicum.shareit.item.comment.service.CommentService;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.transfer.ItemTransferService;
+import ru.practicum.shareit.transfer.TransferFormat;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,6 +32,7 @@ public class ItemController {
     private static final String USER_ID = "X-Sharer-User-Id";
     private final ItemService itemService;
     private final CommentService commentService;
+    private final ItemTransferService itemTransferService;
 
     @PostMapping
     public ItemDto createItem(@RequestHeader(USER_ID) Long userId, @RequestBody @Valid ItemDto itemDto) {
@@ -45,6 +57,25 @@ public class ItemController {
         return itemService.getItems(userId, from, size);
     }
 
+    @PostMapping("/import")
+    public ItemImportResultDto importItems(@RequestHeader(USER_ID) Long userId,
+                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                           HttpServletRequest request) throws IOException {
+        return itemTransferService.importItems(userId, request.getInputStream(),
+                TransferFormat.fromMediaType(contentType));
+    }
+
+    @GetMapping("/export")
+    public void exportItems(@RequestHeader(USER_ID) Long userId,
+                            @RequestParam(defaultValue = "ndjson", required = false) String format,
+                            HttpServletResponse response) throws IOException {
+        TransferFormat transferFormat = TransferFormat.fromName(format);
+        itemTransferService.checkUser(userId);
+        response.setContentType(transferFormat.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        itemTransferService.exportItems(userId, response.getOutputStream(), transferFormat);
+    }
+
     @GetMapping("/search")
     public List<ItemDto> findByText(@RequestParam String text,
                                     @RequestParam(defaultValue = "0", required = false) Integer from,
@@ -52,6 +83,26 @@ public class ItemController {
         return itemService.findByText(text, from, size);
     }
 
+    @GetMapping("/search/available")
+    public List<ItemDto> findAvailableByText(@RequestParam String text,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime start,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime end,
+                                             @RequestParam(defaultValue = "0", required = false) Integer from,
+                                             @RequestParam(defaultValue = "10", required = false) Integer size) {
+        return itemService.findAvailableByText(text, start, end, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto comment(@RequestHeader(USER_ID) Long userId, @PathVariable Long itemId,
                               @RequestBody CommentShortDto commentShortDto) {
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.comment.Mapper;
 
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentShortDto;
+import ru.practicum.shareit.item.comment.dto.ItemCommentDto;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -27,4 +28,13 @@ public class CommentMapper {
                 .build();
     }
 
+    public static CommentDto toCommentDto(ItemCommentDto itemCommentDto) {
+        return CommentDto.builder()
+                .id(itemCommentDto.getId())
+                .text(itemCommentDto.getText())
+                .authorName(itemCommentDto.getAuthorName())
+                .created(itemCommentDto.getCreated())
+                .build();
+    }
+
 }
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.comment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemCommentDto {
+
+    private Long itemId;
+
+    private Long id;
+
+    private String text;
+
+    private String authorName;
+
+    private LocalDateTime created;
+}
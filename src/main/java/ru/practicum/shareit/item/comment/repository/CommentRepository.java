@@ -1,13 +1,22 @@
 package ru.practicum.shareit.item.comment.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.comment.dto.ItemCommentDto;
 import ru.practicum.shareit.item.comment.model.Comment;
 
 import java.util.List;
 
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemId(Long itemId);
 
-    List<Comment> findAllByItemOwnerId(Long ownerId);
+    @Query("select new ru.practicum.shareit.item.comment.dto.ItemCommentDto(" +
+            "c.item.id, c.id, c.text, c.author.name, c.created) " +
+            "from Comment as c " +
+            "where c.item.id in ?1 " +
+            "order by c.created")
+    List<ItemCommentDto> findAllByItemIdIn(List<Long> itemIds);
 }
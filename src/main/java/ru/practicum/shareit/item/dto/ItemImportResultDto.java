@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemImportResultDto {
+    private long processed;
+
+    private long imported;
+
+    private long failed;
+
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemRowDto;
 import ru.practicum.shareit.item.model.Item;
 
 
@@ -15,6 +16,16 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemDto toItemDto(ItemRowDto itemRowDto) {
+        return ItemDto.builder()
+                .id(itemRowDto.getId())
+                .name(itemRowDto.getName())
+                .description(itemRowDto.getDescription())
+                .available(itemRowDto.getAvailable())
+                .requestId(itemRowDto.getRequestId())
+                .build();
+    }
+
     public static Item toItem(ItemDto itemDto) {
         return Item.builder()
                 .name(itemDto.getName())
@@ -1,24 +1,79 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemRowDto;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("select it from Item as it " +
             "where it.available = true " +
             "and " +
             "(upper(it.name) like upper(concat('%',?1,'%')) or upper(it.description) like upper(concat('%',?1,'%')))")
-    Page<Item> searchByText(String text, PageRequest pageRequest);
+    Slice<Item> searchByText(String text, PageRequest pageRequest);
+
+    @Query("select it from Item as it " +
+            "where it.available = true " +
+            "and " +
+            "(upper(it.name) like upper(concat('%',?1,'%')) or upper(it.description) like upper(concat('%',?1,'%'))) " +
+            "and not exists (select b.id from Booking as b " +
+            "where b.item = it " +
+            "and b.bookingStatus in ?2 " +
+            "and b.start < ?4 and b.end > ?3)")
+    Slice<Item> searchAvailableByText(String text, List<BookingStatus> bookingStatuses, LocalDateTime start,
+                                      LocalDateTime end, PageRequest pageRequest);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select it from Item as it where it.id = ?1")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select it from Item as it where it.id in ?1 order by it.id")
+    List<Item> findAllByIdForUpdate(List<Long> itemIds);
+
+    String ITEM_ROWS = "select new ru.practicum.shareit.item.dto.ItemRowDto(it.id, it.name, it.description, " +
+            "it.available, r.id) " +
+            "from Item as it left join it.request as r ";
+
+    @Query(ITEM_ROWS +
+            "where it.owner.id = ?1 " +
+            "order by it.id")
+    Slice<ItemRowDto> findRowsByOwnerId(Long ownerId, PageRequest pageRequest);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(ITEM_ROWS +
+            "where it.owner.id = ?1 " +
+            "order by it.id")
+    Stream<ItemRowDto> streamAllByOwnerId(Long ownerId);
 
-    Page<Item> findAllByOwnerId(Long userId, PageRequest pageRequest);
+    @Query(ITEM_ROWS +
+            "where r.id = ?1 " +
+            "order by it.id")
+    List<ItemRowDto> findRowsByRequestId(Long requestId);
 
-    List<Item> findAllByRequestId(Long requestId);
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "item-rows-by-request")})
+    @Query(ITEM_ROWS +
+            "where r.id in ?1 " +
+            "order by it.id")
+    List<ItemRowDto> findRowsByRequestIdIn(List<Long> requestIds);
 
-    List<Item> findAllByRequestIdIn(List<Long> itemRequests);
+    List<Item> findFirst1000ByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(Long id);
 
 }
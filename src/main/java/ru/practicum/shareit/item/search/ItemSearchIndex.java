@@ -0,0 +1,207 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over names and descriptions of available items.
+ * Every query word has to match the start of a word of the item; items are
+ * ranked by the number of matches, a match in the name counts twice.
+ * Items are indexed once their transaction commits.
+ * <p>
+ * The index is local to this instance and only sees changes made through it,
+ * so it is rebuilt from the database every {@code shareit.search-index.refresh}
+ * to pick up items created or changed through other instances. A rebuild fills
+ * new postings while searches keep using the old ones, changes made meanwhile
+ * are replayed on the new postings before they replace the old. Callers check
+ * the availability of the items they load.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Postings postings = new Postings();
+    // items indexed or removed (null) while a rebuild runs, guarded by the lock
+    private Map<Long, Item> changedDuringRebuild;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${shareit.search-index.refresh:PT5M}",
+            fixedDelayString = "${shareit.search-index.refresh:PT5M}")
+    public synchronized void rebuild() {
+        log.info("rebuild item search index");
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Postings rebuilt = new Postings();
+        try {
+            long lastId = 0L;
+            List<Item> items = itemRepository.findFirst1000ByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(lastId);
+            while (!items.isEmpty()) {
+                items.forEach(item -> rebuilt.put(item.getId(), weights(item)));
+                lastId = items.get(items.size() - 1).getId();
+                items = itemRepository.findFirst1000ByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(lastId);
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach((itemId, item) -> {
+                if (item == null) {
+                    rebuilt.remove(itemId);
+                } else {
+                    rebuilt.put(itemId, weights(item));
+                }
+            });
+            changedDuringRebuild = null;
+            postings = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Item item) {
+        Map<String, Integer> weights = weights(item);
+        lock.writeLock().lock();
+        try {
+            postings.put(item.getId(), weights);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(item.getId(), item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            postings.remove(itemId);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(itemId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        List<String> queryTerms = tokenize(text);
+        if (queryTerms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Integer> scores;
+        lock.readLock().lock();
+        try {
+            scores = postings.score(queryTerms);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .skip(from)
+                .limit(size)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Integer> weights(Item item) {
+        Map<String, Integer> weights = new HashMap<>();
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            tokenize(item.getName()).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+            tokenize(item.getDescription()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        }
+        return weights;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static class Postings {
+        private final NavigableMap<String, Map<Long, Integer>> termItems = new TreeMap<>();
+        private final Map<Long, Set<String>> itemTerms = new HashMap<>();
+
+        private void put(Long itemId, Map<String, Integer> weights) {
+            remove(itemId);
+            if (!weights.isEmpty()) {
+                weights.forEach((term, weight) -> termItems.computeIfAbsent(term, key -> new HashMap<>())
+                        .put(itemId, weight));
+                itemTerms.put(itemId, weights.keySet());
+            }
+        }
+
+        private void remove(Long itemId) {
+            Set<String> terms = itemTerms.remove(itemId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                Map<Long, Integer> posting = termItems.get(term);
+                posting.remove(itemId);
+                if (posting.isEmpty()) {
+                    termItems.remove(term);
+                }
+            }
+        }
+
+        private Map<Long, Integer> score(List<String> queryTerms) {
+            Map<Long, Integer> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Integer> termScores = new HashMap<>();
+                termItems.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).values()
+                        .forEach(posting -> posting.forEach((itemId, weight) ->
+                                termScores.merge(itemId, weight, Integer::sum)));
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((itemId, score) -> score + termScores.get(itemId));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            return scores;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -14,4 +16,8 @@ public interface ItemService {
     ItemDto getItem(Long itemId, Long userId);
 
     List<ItemDto> findByText(String text, Integer from, Integer size);
+
+    List<ItemDto> findAvailableByText(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
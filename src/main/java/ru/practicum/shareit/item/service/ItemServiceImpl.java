@@ -3,8 +3,9 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -12,22 +13,32 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.comment.Mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.dto.ItemCommentDto;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.BookedPeriodDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemRowDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -35,16 +46,21 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ItemServiceImpl implements ItemService {
 
-    private final UserRepository userRepository;
+    private static final int CANDIDATE_CHUNK_SIZE = 1000;
+
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Override
+    @Transactional
     public ItemDto createItem(Long userId, ItemDto itemDto) {
         log.info("create item");
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("user id " + userId + " not found"));
 
         Item item = ItemMapper.toItem(itemDto);
@@ -57,13 +73,15 @@ public class ItemServiceImpl implements ItemService {
         }
 
         itemRepository.save(item);
+        AfterCommit.run(() -> itemSearchIndex.index(item));
         return ItemMapper.toItemDto(item);
     }
 
     @Override
+    @Transactional
     public ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto) {
         log.info("edit item");
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("user id " + userId + " not found"));
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("item id " + itemId + " not found"));
@@ -83,50 +101,44 @@ public class ItemServiceImpl implements ItemService {
         }
 
         itemRepository.save(item);
+        AfterCommit.run(() -> itemSearchIndex.index(item));
         return ItemMapper.toItemDto(item);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> getItems(Long userId, Integer from, Integer size) {
         log.info("get items of user");
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("user id " + userId + " not found"));
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("user id " + userId + " not found");
+        }
         if (from < 0 || size < 1) {
             throw new IncorrectPaginationException("pagination error");
         }
         PageRequest pageRequest = PageRequest.of(from / size, size);
-        List<Item> foundItems = itemRepository.findAllByOwnerId(userId, pageRequest).getContent();
+        List<ItemRowDto> foundItems = itemRepository.findRowsByOwnerId(userId, pageRequest).getContent();
         if (foundItems.isEmpty()) {
             return new ArrayList<>();
         }
-        Collection<Booking> lastBookings = bookingRepository
-                .findAllByItemOwnerIdAndBookingStatusIsAndStartBefore(userId,
-                        BookingStatus.APPROVED,
-                        LocalDateTime.now(),
-                        Sort.by("start").descending());
-        Collection<Booking> nextBookings = bookingRepository
-                .findAllByItemOwnerIdAndBookingStatusIsAndStartAfter(userId,
-                        BookingStatus.APPROVED,
-                        LocalDateTime.now(),
-                        Sort.by("start").ascending());
+        List<Long> itemIds = foundItems.stream().map(ItemRowDto::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = mapByItemId(bookingRepository
+                .findLastBookingsByItemIdIn(itemIds, BookingStatus.APPROVED, now));
+        Map<Long, Booking> nextBookings = mapByItemId(bookingRepository
+                .findNextBookingsByItemIdIn(itemIds, BookingStatus.APPROVED, now));
 
         Collection<ItemDto> finalItems = new ArrayList<>();
 
-        Collection<Comment> comments = commentRepository.findAllByItemOwnerId(userId);
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(ItemCommentDto::getItemId,
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
 
-        for (Item item : foundItems) {
-            List<CommentDto> commentsDto = comments.stream()
-                    .filter(comment -> comment.getItem().getId().equals(item.getId()))
-                    .map(comment -> CommentMapper.toCommentDto(comment, comment.getAuthor().getName()))
-                    .collect(Collectors.toList());
+        for (ItemRowDto item : foundItems) {
+            List<CommentDto> commentsDto = comments.getOrDefault(item.getId(), new ArrayList<>());
 
-            Optional<Booking> lastBooking = lastBookings.stream()
-                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                    .findFirst();
+            Optional<Booking> lastBooking = Optional.ofNullable(lastBookings.get(item.getId()));
 
-            Optional<Booking> nextBooking = nextBookings.stream()
-                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                    .findFirst();
+            Optional<Booking> nextBooking = Optional.ofNullable(nextBookings.get(item.getId()));
 
             ItemDto itemDto = ItemMapper.toItemDto(item);
 
@@ -144,33 +156,24 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemDto getItem(Long userId, Long itemId) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("item id " + itemId + " not found"));
 
         if (item.getOwner().getId().equals(userId)) {
-            Collection<Booking> lastBookings = bookingRepository
-                    .findAllByItemOwnerIdAndBookingStatusIsAndStartBefore(userId,
+            LocalDateTime now = LocalDateTime.now();
+            Optional<Booking> lastBooking = bookingRepository
+                    .findFirstByItemIdAndBookingStatusIsAndStartBeforeOrderByStartDesc(itemId,
                             BookingStatus.APPROVED,
-                            LocalDateTime.now(),
-                            Sort.by("start").descending());
-            Collection<Booking> nextBookings = bookingRepository
-                    .findAllByItemOwnerIdAndBookingStatusIsAndStartAfter(userId,
+                            now);
+            Optional<Booking> nextBooking = bookingRepository
+                    .findFirstByItemIdAndBookingStatusIsAndStartAfterOrderByStartAsc(itemId,
                             BookingStatus.APPROVED,
-                            LocalDateTime.now(),
-                            Sort.by("start").ascending());
-
+                            now);
 
             ItemDto itemDto = ItemMapper.toItemDto(item);
 
-            Optional<Booking> lastBooking = lastBookings.stream()
-                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                    .findFirst();
-
-            Optional<Booking> nextBooking = nextBookings.stream()
-                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                    .findFirst();
-
             lastBooking.ifPresent(booking -> itemDto.setLastBooking(BookingMapper
                     .toBookingReservationDto(booking)));
 
@@ -193,6 +196,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> findByText(String text, Integer from, Integer size) {
         log.info("find item by text");
         if (from < 0 || size < 1) {
@@ -201,11 +205,92 @@ public class ItemServiceImpl implements ItemService {
         if (text.isBlank()) {
             return new ArrayList<>();
         }
-        PageRequest pageRequest = PageRequest.of(from / size, size);
-        List<Item> foundItems = itemRepository.searchByText(text, pageRequest).getContent();
-        if (foundItems.isEmpty()) {
+        if (!itemSearchIndex.isReady()) {
+            PageRequest pageRequest = PageRequest.of(from / size, size);
+            List<Item> foundItems = itemRepository.searchByText(text, pageRequest).getContent();
+            return foundItems.stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+        }
+        return findAllInOrder(itemSearchIndex.search(text, from / size * size, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> findAvailableByText(String text, LocalDateTime start, LocalDateTime end,
+                                             Integer from, Integer size) {
+        log.info("find available item by text");
+        if (from < 0 || size < 1) {
+            throw new IncorrectPaginationException("pagination error");
+        }
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new WrongDateException("date error exception");
+        }
+        if (text.isBlank()) {
             return new ArrayList<>();
         }
-        return foundItems.stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+        if (!itemSearchIndex.isReady()) {
+            PageRequest pageRequest = PageRequest.of(from / size, size);
+            List<Item> foundItems = itemRepository.searchAvailableByText(text, ItemAvailabilityIndex.ACTIVE_STATUSES,
+                    start, end, pageRequest).getContent();
+            return foundItems.stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+        }
+        // candidates are checked in chunks, one IN list per chunk, until the page is filled
+        List<Long> candidateIds = itemSearchIndex.search(text, 0, Integer.MAX_VALUE);
+        int skip = from / size * size;
+        List<Long> freeIds = new ArrayList<>();
+        for (int chunkStart = 0; chunkStart < candidateIds.size() && freeIds.size() < skip + size;
+             chunkStart += CANDIDATE_CHUNK_SIZE) {
+            List<Long> chunk = candidateIds.subList(chunkStart,
+                    Math.min(chunkStart + CANDIDATE_CHUNK_SIZE, candidateIds.size()));
+            Set<Long> bookedIds = new HashSet<>(bookingRepository.findBookedItemIds(chunk,
+                    ItemAvailabilityIndex.ACTIVE_STATUSES, start, end));
+            chunk.stream()
+                    .filter(itemId -> !bookedIds.contains(itemId))
+                    .forEach(freeIds::add);
+        }
+        return findAllInOrder(freeIds.stream()
+                .skip(skip)
+                .limit(size)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("get item availability");
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new WrongDateException("date error exception");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException("item id " + itemId + " not found");
+        }
+        List<BookedPeriodDto> booked = itemAvailabilityIndex.findBooked(itemId, from, to).stream()
+                .map(interval -> new BookedPeriodDto(interval.getStart(), interval.getEnd()))
+                .collect(Collectors.toList());
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .available(booked.isEmpty())
+                .booked(booked)
+                .build();
+    }
+
+    private List<ItemDto> findAllInOrder(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Item> foundItems = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(foundItems::get)
+                .filter(item -> item != null && Boolean.TRUE.equals(item.getAvailable()))
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, Booking> mapByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
     }
 }
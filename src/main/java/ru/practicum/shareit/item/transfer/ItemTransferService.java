@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.transfer;
+
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.transfer.TransferFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ItemTransferService {
+    ItemImportResultDto importItems(Long userId, InputStream input, TransferFormat format) throws IOException;
+
+    void checkUser(Long userId);
+
+    void exportItems(Long userId, OutputStream output, TransferFormat format) throws IOException;
+}
@@ -0,0 +1,276 @@
+package ru.practicum.shareit.item.transfer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.UnsupportedFormatException;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemRowDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.transfer.CsvLine;
+import ru.practicum.shareit.transfer.TransferFormat;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports and exports items line by line. Imported lines are saved in batches of
+ * {@link #BATCH_SIZE}, each in its own transaction. A batch the database rejects
+ * is saved again line by line, so a failing line only loses itself, and a broken
+ * upload keeps everything saved before it. Exports read
+ * the catalogue through a database cursor and never hold more than one fetch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemTransferServiceImpl implements ItemTransferService {
+    static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int NAME_MAX_LENGTH = 255;
+    private static final List<String> CSV_COLUMNS = List.of("id", "name", "description", "available", "requestId");
+
+    private final UserCache userCache;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public ItemImportResultDto importItems(Long userId, InputStream input, TransferFormat format) throws IOException {
+        log.info("import items");
+        User owner = userCache.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("user id " + userId + " not found"));
+        ItemImportResultDto result = new ItemImportResultDto();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        Function<String, ItemRowDto> parser;
+        int lineNumber = 0;
+        if (format == TransferFormat.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            parser = csvParser(header);
+        } else {
+            parser = this::parseJson;
+        }
+
+        Map<Integer, ItemRowDto> batch = new LinkedHashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            result.setProcessed(result.getProcessed() + 1);
+            try {
+                ItemRowDto itemRowDto = parser.apply(line);
+                validate(itemRowDto);
+                batch.put(lineNumber, itemRowDto);
+            } catch (IllegalArgumentException e) {
+                fail(result, lineNumber, e.getMessage());
+            }
+            if (batch.size() == BATCH_SIZE) {
+                save(owner, batch, result);
+            }
+        }
+        save(owner, batch, result);
+        return result;
+    }
+
+    @Override
+    public void checkUser(Long userId) {
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("user id " + userId + " not found");
+        }
+    }
+
+    @Override
+    public void exportItems(Long userId, OutputStream output, TransferFormat format) throws IOException {
+        log.info("export items");
+        checkUser(userId);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == TransferFormat.CSV) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<ItemRowDto> items = itemRepository.streamAllByOwnerId(userId)) {
+                    items.forEach(item -> write(writer, item, format));
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void save(User owner, Map<Integer, ItemRowDto> batch, ItemImportResultDto result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = batch.values().stream()
+                .map(ItemRowDto::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, ItemRequest> requests = requestIds.isEmpty() ? new HashMap<>()
+                : itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        Map<Integer, ItemRequest> accepted = new LinkedHashMap<>();
+        batch.forEach((lineNumber, itemRowDto) -> {
+            ItemRequest request = null;
+            if (itemRowDto.getRequestId() != null) {
+                request = requests.get(itemRowDto.getRequestId());
+                if (request == null) {
+                    fail(result, lineNumber, "item request not found");
+                    return;
+                }
+            }
+            accepted.put(lineNumber, request);
+        });
+        List<Item> items = new ArrayList<>();
+        try {
+            List<Item> batchItems = new ArrayList<>();
+            accepted.forEach((lineNumber, request) -> batchItems.add(toItem(owner, batch.get(lineNumber), request)));
+            transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(batchItems));
+            items.addAll(batchItems);
+        } catch (DataAccessException e) {
+            // the rolled back entities keep their ids, the lines are saved again as new items
+            log.warn("batch of {} items of user {} failed, saving them one by one: {}", accepted.size(),
+                    owner.getId(), e.getMessage());
+            accepted.forEach((lineNumber, request) -> {
+                Item item = toItem(owner, batch.get(lineNumber), request);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> itemRepository.save(item));
+                    items.add(item);
+                } catch (DataAccessException lineException) {
+                    fail(result, lineNumber, "item could not be saved");
+                }
+            });
+        }
+        items.forEach(itemSearchIndex::index);
+        batch.clear();
+
+        result.setImported(result.getImported() + items.size());
+        log.info("imported {} items of user {}, {} lines processed, {} failed",
+                result.getImported(), owner.getId(), result.getProcessed(), result.getFailed());
+    }
+
+    private static Item toItem(User owner, ItemRowDto itemRowDto, ItemRequest request) {
+        return Item.builder()
+                .name(itemRowDto.getName())
+                .description(itemRowDto.getDescription())
+                .available(itemRowDto.getAvailable())
+                .owner(owner)
+                .request(request)
+                .build();
+    }
+
+    private ItemRowDto parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, ItemRowDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("malformed line");
+        }
+    }
+
+    private Function<String, ItemRowDto> csvParser(String header) {
+        if (header == null) {
+            throw new UnsupportedFormatException("csv header is missing");
+        }
+        List<String> columns = CsvLine.parse(header).stream().map(String::trim).collect(Collectors.toList());
+        int name = columns.indexOf("name");
+        int description = columns.indexOf("description");
+        int available = columns.indexOf("available");
+        int requestId = columns.indexOf("requestId");
+        if (name < 0 || description < 0 || available < 0) {
+            throw new UnsupportedFormatException("csv header must contain name, description and available");
+        }
+        return line -> {
+            List<String> fields = CsvLine.parse(line);
+            if (fields.size() != columns.size()) {
+                throw new IllegalArgumentException("expected " + columns.size() + " fields");
+            }
+            return ItemRowDto.builder()
+                    .name(fields.get(name))
+                    .description(fields.get(description))
+                    .available(parseBoolean(fields.get(available)))
+                    .requestId(requestId < 0 || fields.get(requestId).isBlank() ? null
+                            : parseLong(fields.get(requestId)))
+                    .build();
+        };
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value.isBlank()) {
+            return null;
+        }
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException("available must be true or false");
+        }
+        return Boolean.valueOf(value);
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("requestId must be a number");
+        }
+    }
+
+    private static void validate(ItemRowDto itemRowDto) {
+        if (itemRowDto.getName() == null || itemRowDto.getName().isBlank()) {
+            throw new IllegalArgumentException("name is empty");
+        }
+        if (itemRowDto.getName().length() > NAME_MAX_LENGTH) {
+            throw new IllegalArgumentException("name is longer than " + NAME_MAX_LENGTH + " characters");
+        }
+        if (itemRowDto.getDescription() == null || itemRowDto.getDescription().isBlank()) {
+            throw new IllegalArgumentException("description is empty");
+        }
+        if (itemRowDto.getAvailable() == null) {
+            throw new IllegalArgumentException("available is empty");
+        }
+    }
+
+    private static void fail(ItemImportResultDto result, int lineNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add("line " + lineNumber + ": " + message);
+        }
+    }
+
+    private void write(Writer writer, ItemRowDto item, TransferFormat format) {
+        try {
+            if (format == TransferFormat.CSV) {
+                writer.write(CsvLine.format(item.getId(), item.getName(), item.getDescription(),
+                        item.getAvailable(), item.getRequestId()));
+            } else {
+                writer.write(objectMapper.writeValueAsString(item));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.booking.dto.State;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Set;
+
+/**
+ * Adds the requested {@link State} to {@code http.server.requests} of the booking
+ * listings, each state runs its own query. Other requests are tagged
+ * {@code NONE}. States are parsed as strictly as the booking service does,
+ * so a state it rejects is tagged {@code INVALID}.
+ */
+public class BookingStateTagsContributor implements WebMvcTagsContributor {
+    private static final Set<String> BOOKING_LISTINGS = Set.of("/bookings", "/bookings/owner");
+
+    @Override
+    public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                 Throwable exception) {
+        return Tags.of("state", state(request));
+    }
+
+    @Override
+    public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+        return Tags.of("state", state(request));
+    }
+
+    private static String state(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null || !BOOKING_LISTINGS.contains(pattern.toString())) {
+            return "NONE";
+        }
+        String state = request.getParameter("state");
+        if (state == null) {
+            return State.ALL.name();
+        }
+        try {
+            return State.valueOf(state).name();
+        } catch (IllegalArgumentException e) {
+            return "INVALID";
+        }
+    }
+}
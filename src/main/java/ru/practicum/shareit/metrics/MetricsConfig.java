@@ -0,0 +1,55 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Controller and repository timers ({@code http.server.requests},
+ * {@code spring.data.repository.invocations}) and Hibernate statistics gauges
+ * come from Spring Boot. This adds the booking state tag, the per-request
+ * Hibernate counts and the {@link SqlBudget} check of sampled requests.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public BookingStateTagsContributor bookingStateTagsContributor() {
+        return new BookingStateTagsContributor();
+    }
+
+    @Bean
+    public WebMvcConfigurer requestStatisticsConfigurer(MeterRegistry meterRegistry, SqlBudget sqlBudget) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new RequestStatisticsInterceptor(meterRegistry, sqlBudget));
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnExpression("${shareit.sql-budget.sample-rate:0.01} > 0")
+    public static SqlBudgetDataSourcePostProcessor sqlBudgetDataSourcePostProcessor() {
+        return new SqlBudgetDataSourcePostProcessor();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                    RequestStatisticsSessionListener.class.getName());
+            properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(new RequestStatisticsIntegrator()));
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hibernate work done on behalf of the HTTP request handled by the current
+ * thread. Counters are bumped by Hibernate listeners and stay untouched
+ * outside of a request. Rows and statement texts are only collected for
+ * sampled requests. Statistics may nest, the inner ones are added to the
+ * outer ones when they end.
+ */
+@Getter
+public class RequestStatistics {
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private final RequestStatistics parent;
+
+    private final boolean sampled;
+
+    private final Map<String, Integer> sqlCounts;
+
+    private long statements;
+
+    private long entityLoads;
+
+    private long flushes;
+
+    private long rows;
+
+    private RequestStatistics(RequestStatistics parent, boolean sampled) {
+        this.parent = parent;
+        this.sampled = sampled;
+        this.sqlCounts = sampled ? new HashMap<>() : Collections.emptyMap();
+    }
+
+    static RequestStatistics begin(boolean sampled) {
+        RequestStatistics statistics = new RequestStatistics(CURRENT.get(), sampled);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static RequestStatistics end() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics == null) {
+            return null;
+        }
+        if (statistics.parent == null) {
+            CURRENT.remove();
+        } else {
+            statistics.parent.add(statistics);
+            CURRENT.set(statistics.parent);
+        }
+        return statistics;
+    }
+
+    public static RequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    static void statementExecuted() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    static void flushed() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.flushes++;
+        }
+    }
+
+    static void sqlExecuted(String sql) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null && statistics.sampled) {
+            statistics.sqlCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    static void rowRead() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null && statistics.sampled) {
+            statistics.rows++;
+        }
+    }
+
+    private void add(RequestStatistics inner) {
+        statements += inner.statements;
+        entityLoads += inner.entityLoads;
+        flushes += inner.flushes;
+        if (sampled) {
+            rows += inner.rows;
+            inner.sqlCounts.forEach((sql, count) -> sqlCounts.merge(sql, count, Integer::sum));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records statements, entity loads and flushes of every handled request as
+ * distribution summaries tagged like {@code http.server.requests}. Sampled
+ * requests also record rows read and are checked against the {@link SqlBudget}.
+ */
+@RequiredArgsConstructor
+public class RequestStatisticsInterceptor implements HandlerInterceptor {
+    private final MeterRegistry meterRegistry;
+    private final SqlBudget sqlBudget;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatistics.begin(sqlBudget.sample());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestStatistics statistics = RequestStatistics.end();
+        if (statistics == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        record("shareit.request.statements", request, uri, statistics.getStatements());
+        record("shareit.request.entity.loads", request, uri, statistics.getEntityLoads());
+        record("shareit.request.flushes", request, uri, statistics.getFlushes());
+        if (statistics.isSampled()) {
+            record("shareit.request.rows", request, uri, statistics.getRows());
+            sqlBudget.check(request.getMethod(), uri, statistics);
+        }
+    }
+
+    private void record(String name, HttpServletRequest request, String uri, long amount) {
+        DistributionSummary.builder(name)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(amount);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out connections of the JDBC proxy only while a sampled
+ * {@link RequestStatistics} is bound to the thread. Unsampled requests get the
+ * plain connections of the target and never go through the proxy.
+ */
+class SampledDataSource extends DelegatingDataSource {
+    private final DataSource proxy;
+
+    SampledDataSource(DataSource target, DataSource proxy) {
+        super(target);
+        this.proxy = proxy;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return sampled() ? proxy.getConnection() : super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return sampled() ? proxy.getConnection(username, password) : super.getConnection(username, password);
+    }
+
+    private static boolean sampled() {
+        RequestStatistics statistics = RequestStatistics.current();
+        return statistics != null && statistics.isSampled();
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SQL budget of a single request. A sampled request that runs more than
+ * {@code statements} statements, reads more than {@code rows} rows or runs the
+ * same statement {@code repeated} times or more, which is how an N+1 looks, is
+ * logged and counted in {@code shareit.request.over.budget}.
+ */
+@Slf4j
+@Component
+public class SqlBudget {
+    private final MeterRegistry meterRegistry;
+    private final double sampleRate;
+    private final int statements;
+    private final int rows;
+    private final int repeated;
+
+    public SqlBudget(MeterRegistry meterRegistry,
+                     @Value("${shareit.sql-budget.sample-rate:0.01}") double sampleRate,
+                     @Value("${shareit.sql-budget.statements:10}") int statements,
+                     @Value("${shareit.sql-budget.rows:1000}") int rows,
+                     @Value("${shareit.sql-budget.repeated:3}") int repeated) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.statements = statements;
+        this.rows = rows;
+        this.repeated = repeated;
+    }
+
+    public boolean sample() {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    void check(String method, String uri, RequestStatistics statistics) {
+        if (statistics.getStatements() > statements) {
+            overBudget(method, uri, "statements");
+            log.warn("{} {} ran {} statements, budget {}", method, uri, statistics.getStatements(), statements);
+        }
+        if (statistics.getRows() > rows) {
+            overBudget(method, uri, "rows");
+            log.warn("{} {} read {} rows, budget {}", method, uri, statistics.getRows(), rows);
+        }
+        for (Map.Entry<String, Integer> sql : statistics.getSqlCounts().entrySet()) {
+            if (sql.getValue() >= repeated) {
+                overBudget(method, uri, "repeated");
+                log.warn("{} {} ran the same statement {} times, possible N+1: {}", method, uri, sql.getValue(),
+                        sql.getKey());
+            }
+        }
+    }
+
+    private void overBudget(String method, String uri, String reason) {
+        meterRegistry.counter("shareit.request.over.budget", "method", method, "uri", uri, "reason", reason)
+                .increment();
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the {@code dataSource} bean in a JDBC proxy feeding {@link SqlBudgetListener}.
+ * The proxy only hands out connections to sampled requests, see
+ * {@link SampledDataSource}; the others use the plain connections.
+ */
+public class SqlBudgetDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!"dataSource".equals(beanName) || !(bean instanceof DataSource)) {
+            return bean;
+        }
+        SqlBudgetListener listener = new SqlBudgetListener();
+        DataSource proxy = ProxyDataSourceBuilder.create((DataSource) bean)
+                .name(beanName)
+                .listener(listener)
+                .methodListener(listener)
+                .proxyResultSet()
+                .build();
+        return new SampledDataSource((DataSource) bean, proxy);
+    }
+}
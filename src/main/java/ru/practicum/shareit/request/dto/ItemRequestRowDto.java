@@ -0,0 +1,29 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Item request joined with its requester, as selected by the request list query.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemRequestRowDto {
+    private Long id;
+
+    private String description;
+
+    private LocalDateTime created;
+
+    private Long requesterId;
+
+    private String requesterName;
+
+    private String requesterEmail;
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.mapper;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestRowDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -18,6 +19,19 @@ public class ItemRequestMapper {
                 .build();
     }
 
+    public static ItemRequestDto toItemRequestDto(ItemRequestRowDto itemRequestRowDto) {
+        return ItemRequestDto.builder()
+                .id(itemRequestRowDto.getId())
+                .description(itemRequestRowDto.getDescription())
+                .requester(UserDto.builder()
+                        .id(itemRequestRowDto.getRequesterId())
+                        .name(itemRequestRowDto.getRequesterName())
+                        .email(itemRequestRowDto.getRequesterEmail())
+                        .build())
+                .created(itemRequestRowDto.getCreated())
+                .build();
+    }
+
     public static ItemRequest toItemRequest(ItemRequestShortDto itemRequestShortDto, User user, LocalDateTime creationDate) {
         return ItemRequest.builder()
                 .requester(user)
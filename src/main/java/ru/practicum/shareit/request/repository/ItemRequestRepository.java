@@ -1,14 +1,26 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.ItemRequestRowDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @EntityGraph(attributePaths = "requester")
+    Optional<ItemRequest> findWithRequesterById(Long itemRequestId);
+
     List<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(Long requesterId);
 
-    Page<ItemRequest> findAllByRequesterIdIsNotOrderByCreatedDesc(Long requesterId, PageRequest pageRequest);
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestRowDto(r.id, r.description, r.created, " +
+            "u.id, u.name, u.email) " +
+            "from ItemRequest as r join r.requester as u " +
+            "where u.id <> ?1 " +
+            "order by r.created desc")
+    Slice<ItemRequestRowDto> findOthersRequests(Long requesterId, PageRequest pageRequest);
 }
@@ -4,27 +4,30 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.EmptyDescriptionException;
 import ru.practicum.shareit.exception.IncorrectPaginationException;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemRowDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestRowDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -32,17 +35,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ItemRequestServiceImpl implements ItemRequestService {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
     private final ItemRequestRepository itemRequestRepository;
 
     @Override
+    @Transactional
     public ItemRequestDto createItemRequest(Long userId, ItemRequestShortDto itemRequestShortDto) {
         log.info("create item request");
         if (itemRequestShortDto.getDescription() == null || itemRequestShortDto.getDescription().isEmpty()) {
             throw new EmptyDescriptionException("empty description");
         }
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("user id " + userId + " not found"));
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestShortDto, user, LocalDateTime.now());
         UserDto userDto = UserMapper.toUserDto(user);
@@ -51,15 +55,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getItemRequests(Long userId) {
         log.info("get item request of current user");
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("user id " + userId + " not found"));
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(user.getId());
         if (itemRequests.isEmpty()) {
             return new ArrayList<>();
         }
-        List<Item> items = itemRepository.findAllByRequestIdIn(itemRequests.stream()
+        List<ItemRowDto> items = itemRepository.findRowsByRequestIdIn(itemRequests.stream()
                 .map(ItemRequest::getId)
                 .collect(Collectors.toList()));
         UserDto userDto = UserMapper.toUserDto(user);
@@ -68,7 +73,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .collect(Collectors.toList());
         for (ItemRequestDto itemRequestDto : itemRequestDtos) {
             itemRequestDto.setItems(items.stream()
-                    .filter(item -> item.getRequest().getId().equals(itemRequestDto.getId()))
+                    .filter(item -> item.getRequestId().equals(itemRequestDto.getId()))
                     .map(ItemMapper::toItemDto)
                     .collect(Collectors.toList()));
         }
@@ -76,44 +81,45 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllItemRequests(Long userId, Integer from, Integer size) {
         log.info("get item request of current user");
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("user id " + userId + " not found"));
         if (from < 0 || size < 1) {
             throw new IncorrectPaginationException("incorrect pagination");
         }
-        List<ItemRequest> itemRequests = itemRequestRepository
-                .findAllByRequesterIdIsNotOrderByCreatedDesc(userId, PageRequest.of(from / size, size)).getContent();
+        List<ItemRequestRowDto> itemRequests = itemRequestRepository
+                .findOthersRequests(userId, PageRequest.of(from / size, size)).getContent();
         if (itemRequests.isEmpty()) {
             return new ArrayList<>();
         }
-        List<Item> items = itemRepository.findAllByRequestIdIn(itemRequests
+        Map<Long, List<ItemDto>> items = itemRepository.findRowsByRequestIdIn(itemRequests
+                        .stream()
+                        .map(ItemRequestRowDto::getId)
+                        .collect(Collectors.toList()))
                 .stream()
-                .map(ItemRequest::getId)
-                .collect(Collectors.toList()));
+                .collect(Collectors.groupingBy(ItemRowDto::getRequestId,
+                        Collectors.mapping(ItemMapper::toItemDto, Collectors.toList())));
         List<ItemRequestDto> itemRequestDtos = new ArrayList<>();
-        for (ItemRequest itemRequest : itemRequests) {
-            List<ItemDto> itemDtos = items.stream()
-                    .filter(item -> item.getRequest().getId().equals(itemRequest.getId()))
-                    .map(ItemMapper::toItemDto)
-                    .collect(Collectors.toList());
-            UserDto userDto = UserMapper.toUserDto(itemRequest.getRequester());
-            ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest, userDto);
-            itemRequestDto.setItems(itemDtos);
+        for (ItemRequestRowDto itemRequest : itemRequests) {
+            ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest);
+            itemRequestDto.setItems(items.getOrDefault(itemRequest.getId(), new ArrayList<>()));
             itemRequestDtos.add(itemRequestDto);
         }
         return itemRequestDtos;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequestDto getItemRequestById(Long userId, Long itemRequestId) {
         log.info("get item request by id");
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("user id " + userId + " not found"));
-        ItemRequest itemRequest = itemRequestRepository.findById(itemRequestId)
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("user id " + userId + " not found");
+        }
+        ItemRequest itemRequest = itemRequestRepository.findWithRequesterById(itemRequestId)
                 .orElseThrow(() -> new ItemRequestNotFoundException("item request id " + itemRequestId + " not found"));
-        List<ItemDto> items = itemRepository.findAllByRequestId(itemRequest.getId()).stream()
+        List<ItemDto> items = itemRepository.findRowsByRequestId(itemRequest.getId()).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
         ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest,
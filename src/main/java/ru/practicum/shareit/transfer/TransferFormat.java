@@ -0,0 +1,43 @@
+package ru.practicum.shareit.transfer;
+
+import ru.practicum.shareit.exception.UnsupportedFormatException;
+
+/**
+ * Line based formats of bulk import and export: one JSON object per line or
+ * comma separated values with a header line.
+ */
+public enum TransferFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    TransferFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static TransferFormat fromName(String name) {
+        for (TransferFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new UnsupportedFormatException("Unknown format: " + name);
+    }
+
+    public static TransferFormat fromMediaType(String contentType) {
+        if (contentType != null) {
+            String mediaType = contentType.split(";")[0].trim();
+            for (TransferFormat format : values()) {
+                if (format.mediaType.equalsIgnoreCase(mediaType)) {
+                    return format;
+                }
+            }
+        }
+        throw new UnsupportedFormatException("Unsupported content type: " + contentType);
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.user.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of users in front of {@link UserRepository}.
+ * Holds at most {@code maxSize} users, least recently used first out,
+ * and drops entries older than {@code ttl}. Misses are read from the primary
+ * database. Callers always get a copy, on a hit and on a miss alike.
+ * Existence checks that miss only ask the database whether the user exists and
+ * remember that without loading the user.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final PrimaryReads primaryReads;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private long invalidations;
+
+    public UserCache(UserRepository userRepository,
+                     PrimaryReads primaryReads,
+                     @Value("${shareit.user-cache.max-size:10000}") int maxSize,
+                     @Value("${shareit.user-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.primaryReads = primaryReads;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public Optional<User> findById(Long userId) {
+        if (userId == null) {
+            return userRepository.findById(userId);
+        }
+        Entry cached = get(userId);
+        if (cached != null && cached.user != null) {
+            hitCount.incrementAndGet();
+            return Optional.of(copy(cached.user));
+        }
+        missCount.incrementAndGet();
+        long invalidationsBefore = invalidations();
+        Optional<User> user = primaryReads.read(() -> userRepository.findById(userId));
+        user.ifPresent(found -> put(found.getId(), copy(found), invalidationsBefore));
+        return user.map(UserCache::copy);
+    }
+
+    public boolean existsById(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (get(userId) != null) {
+            hitCount.incrementAndGet();
+            return true;
+        }
+        missCount.incrementAndGet();
+        long invalidationsBefore = invalidations();
+        boolean exists = primaryReads.read(() -> userRepository.existsUserById(userId));
+        if (exists) {
+            put(userId, null, invalidationsBefore);
+        }
+        return exists;
+    }
+
+    /**
+     * Called after a change of the user is committed.
+     */
+    public synchronized void evict(Long userId) {
+        entries.remove(userId);
+        invalidations++;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        invalidations++;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private synchronized Entry get(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt >= ttlNanos) {
+            entries.remove(userId);
+            evictionCount.incrementAndGet();
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized long invalidations() {
+        return invalidations;
+    }
+
+    // a miss that read the row before an eviction may hold the old state, it is not kept;
+    // a null user only marks the user as existing and never replaces a loaded one
+    private synchronized void put(Long userId, User user, long invalidationsBefore) {
+        if (invalidations != invalidationsBefore) {
+            return;
+        }
+        Entry entry = entries.get(userId);
+        if (user == null && entry != null && entry.user != null) {
+            return;
+        }
+        entries.put(userId, new Entry(user, System.nanoTime()));
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+
+    private static class Entry {
+        private final User user;
+        private final long loadedAt;
+
+        private Entry(User user, long loadedAt) {
+            this.user = user;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
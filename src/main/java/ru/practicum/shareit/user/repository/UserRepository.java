@@ -6,4 +6,7 @@ import ru.practicum.shareit.user.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
+
+    // a derived exists query selects one id instead of counting like existsById
+    boolean existsUserById(Long id);
 }
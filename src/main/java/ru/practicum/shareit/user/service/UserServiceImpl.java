@@ -3,8 +3,11 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.EmailCollisionException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.transaction.AfterCommit;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -19,8 +22,10 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
+    @Transactional
     public UserDto createUser(UserDto userDto) {
         log.info("create user");
         User user = UserMapper.toUser(userDto);
@@ -29,6 +34,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto updateUser(Long id, UserDto userDto) {
         log.info("update user");
         User oldUser = userRepository.findById(id)
@@ -44,19 +50,23 @@ public class UserServiceImpl implements UserService {
             oldUser.setName(userDto.getName());
         }
         User user = userRepository.save(oldUser);
+        AfterCommit.run(() -> userCache.evict(id));
         return UserMapper.toUserDto(user);
     }
 
     @Override
+    @Transactional
     public UserDto deleteUser(Long userId) {
         log.info("delete user");
         User userToDelete = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("no user " + userId + " found"));
         userRepository.delete(userToDelete);
+        AfterCommit.run(() -> userCache.evict(userId));
         return UserMapper.toUserDto(userToDelete);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getUsers() {
         log.info("get all users");
         return userRepository.findAll()
@@ -66,9 +76,10 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUser(Long userId) {
         log.info("get user");
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("no user " + userId + " found"));
         return UserMapper.toUserDto(user);
     }
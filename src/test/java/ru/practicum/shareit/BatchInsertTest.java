@@ -0,0 +1,102 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BatchInsertTest {
+    private static final int COUNT = 120;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder().name("owner").email("batch-owner@mail.ru").build());
+    }
+
+    @Test
+    void itemsAreInsertedInJdbcBatches() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            items.add(Item.builder().name("item " + i).description("description").available(true).owner(owner).build());
+        }
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(items));
+
+        assertEquals(COUNT, statistics.getEntityInsertCount());
+        assertBatched(10);
+        assertEquals(COUNT, itemRepository.findRowsByOwnerId(owner.getId(), PageRequest.of(0, 2 * COUNT))
+                .getNumberOfElements());
+    }
+
+    @Test
+    void batchBookingsAreInsertedInJdbcBatches() {
+        User booker = userRepository.save(User.builder().name("booker").email("batch-booker@mail.ru").build());
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            items.add(Item.builder().name("item " + i).description("description").available(true).owner(owner).build());
+        }
+        transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(items));
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        List<BookingShortDto> batch = items.stream()
+                .map(item -> BookingShortDto.builder().itemId(item.getId()).start(start).end(start.plusDays(1L)).build())
+                .collect(Collectors.toList());
+        bookingService.createBookings(booker.getId(), List.of());
+        statistics.clear();
+
+        bookingService.createBookings(booker.getId(), batch);
+
+        assertEquals(COUNT, statistics.getEntityInsertCount());
+        // the batch is reserved in 8 groups of 16 lock stripes, each group locks its
+        // items, reads their overlapping bookings and inserts in one JDBC batch
+        assertBatched(30);
+    }
+
+    private void assertBatched(int maxStatements) {
+        // row-at-a-time inserts would prepare at least one statement per row
+        assertTrue(statistics.getPrepareStatementCount() <= maxStatements,
+                "prepared statements: " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestShortDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class EntityLoadCountTest {
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long ownerId;
+
+    private Long bookerId;
+
+    private Long itemId;
+
+    private Long requestId;
+
+    private Long bookingId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ownerId = userService.createUser(UserDto.builder().name("owner").email("loads-owner@mail.ru").build()).getId();
+        bookerId = userService.createUser(UserDto.builder().name("booker").email("loads-booker@mail.ru").build())
+                .getId();
+        ItemRequestDto request = itemRequestService.createItemRequest(bookerId,
+                ItemRequestShortDto.builder().description("need a drill").build());
+        requestId = request.getId();
+        for (int i = 0; i < 3; i++) {
+            ItemDto item = itemService.createItem(ownerId, ItemDto.builder()
+                    .name("drill " + i)
+                    .description("cordless drill")
+                    .available(true)
+                    .requestId(requestId)
+                    .build());
+            itemId = item.getId();
+            bookingId = bookingService.createBooking(bookerId, BookingShortDto.builder()
+                    .itemId(itemId)
+                    .start(LocalDateTime.now().plusDays(i + 1))
+                    .end(LocalDateTime.now().plusDays(i + 2))
+                    .build()).getId();
+        }
+        for (int i = 0; i < 2; i++) {
+            commentRepository.save(Comment.builder()
+                    .text("great drill " + i)
+                    .item(itemRepository.getReferenceById(itemId))
+                    .author(userRepository.getReferenceById(bookerId))
+                    .created(LocalDateTime.now())
+                    .build());
+        }
+        userCache.findById(ownerId);
+        userCache.findById(bookerId);
+    }
+
+    @Test
+    void itemEndpointsLoadOnlyWhatTheyMap() throws Exception {
+        assertLoads(get("/items/{itemId}", itemId).header(USER_ID, bookerId),
+                Map.of(Item.class, 1L, Comment.class, 2L, User.class, 1L));
+        assertLoads(get("/items/{itemId}", itemId).header(USER_ID, ownerId),
+                Map.of(Item.class, 1L, Comment.class, 2L, User.class, 1L));
+        assertLoads(get("/items/search").param("text", "drill"), Map.of(Item.class, 3L));
+        assertLoads(get("/items").header(USER_ID, ownerId), Map.of());
+    }
+
+    @Test
+    void bookingEndpointsLoadOnlyWhatTheyMap() throws Exception {
+        assertLoads(get("/bookings/{bookingId}", bookingId).header(USER_ID, bookerId),
+                Map.of(Booking.class, 1L, Item.class, 1L, User.class, 1L));
+        assertLoads(get("/bookings").header(USER_ID, bookerId), Map.of());
+        assertLoads(get("/bookings/owner").header(USER_ID, ownerId), Map.of());
+    }
+
+    @Test
+    void requestEndpointsLoadOnlyWhatTheyMap() throws Exception {
+        assertLoads(get("/requests/{requestId}", requestId).header(USER_ID, ownerId),
+                Map.of(ItemRequest.class, 1L, User.class, 1L));
+        assertLoads(get("/requests").header(USER_ID, bookerId), Map.of(ItemRequest.class, 1L));
+        assertLoads(get("/requests/all").header(USER_ID, ownerId), Map.of());
+    }
+
+    private void assertLoads(MockHttpServletRequestBuilder request, Map<Class<?>, Long> expected) throws Exception {
+        statistics.clear();
+
+        mvc.perform(request).andExpect(status().isOk());
+
+        Map<String, Long> loaded = Arrays.stream(statistics.getEntityNames())
+                .filter(name -> statistics.getEntityStatistics(name).getLoadCount() > 0)
+                .collect(Collectors.toMap(name -> name.substring(name.lastIndexOf('.') + 1),
+                        name -> statistics.getEntityStatistics(name).getLoadCount()));
+        assertEquals(expected.entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().getSimpleName(), Map.Entry::getValue)), loaded);
+    }
+}
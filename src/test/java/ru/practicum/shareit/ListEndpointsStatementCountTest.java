@@ -0,0 +1,130 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestShortDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.metrics.SqlAssertions.assertQueryCount;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ListEndpointsStatementCountTest {
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long ownerId;
+
+    private Long bookerId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ownerId = userService.createUser(UserDto.builder().name("owner").email("owner@mail.ru").build()).getId();
+        bookerId = userService.createUser(UserDto.builder().name("booker").email("booker@mail.ru").build()).getId();
+        ItemRequestDto request = itemRequestService.createItemRequest(bookerId,
+                ItemRequestShortDto.builder().description("need a drill").build());
+        for (int i = 0; i < 3; i++) {
+            ItemDto item = itemService.createItem(ownerId, ItemDto.builder()
+                    .name("drill " + i)
+                    .description("cordless drill")
+                    .available(true)
+                    .requestId(request.getId())
+                    .build());
+            bookingService.createBooking(bookerId, BookingShortDto.builder()
+                    .itemId(item.getId())
+                    .start(LocalDateTime.now().plusDays(i + 1))
+                    .end(LocalDateTime.now().plusDays(i + 2))
+                    .build());
+        }
+    }
+
+    @Test
+    void listEndpointsRunWithoutCountQueries() throws Exception {
+        assertStatements(get("/items").header(USER_ID, ownerId), 5);
+        assertStatements(get("/items/search").param("text", "drill"), 1);
+        assertStatements(get("/requests/all").header(USER_ID, ownerId), 3);
+        assertStatements(get("/bookings").header(USER_ID, bookerId), 2);
+        assertStatements(get("/bookings/owner").header(USER_ID, ownerId), 2);
+    }
+
+    @Test
+    void bookingPagesLoadInOneQuery() {
+        String cursor = new BookingCursor(LocalDateTime.now().plusYears(1L), Long.MAX_VALUE).encode();
+        userCache.findById(ownerId);
+        userCache.findById(bookerId);
+
+        for (State state : State.values()) {
+            int found = assertQueryCount(4, () -> bookingService.getUsersBookings(bookerId, state.name(), 0, 10).size()
+                    + bookingService.getOwnersBookings(ownerId, state.name(), 0, 10).size()
+                    + bookingService.getUsersBookingsAfter(bookerId, state.name(), cursor, 10).getContent().size()
+                    + bookingService.getOwnersBookingsAfter(ownerId, state.name(), cursor, 10).getContent().size());
+
+            assertEquals(state == State.ALL || state == State.WAITING || state == State.FUTURE ? 12 : 0,
+                    found, state.name());
+        }
+    }
+
+    private void assertStatements(MockHttpServletRequestBuilder request, long expected) throws Exception {
+        userCache.clear();
+        statistics.clear();
+
+        assertQueryCount(expected, () -> mvc.perform(request).andExpect(status().isOk()));
+
+        assertTrue(Arrays.stream(statistics.getQueries()).noneMatch(query -> query.contains("count(")),
+                "count query issued: " + Arrays.toString(statistics.getQueries()));
+    }
+}
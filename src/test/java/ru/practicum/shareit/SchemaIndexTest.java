@@ -0,0 +1,61 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@JdbcTest
+class SchemaIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "select * from bookings b where b.booker_id = 1 " +
+                    "order by b.start_time desc, b.id desc limit 11",
+            "select * from bookings b where b.booker_id = 1 and b.status = 'WAITING' " +
+                    "order by b.start_time desc, b.id desc limit 11",
+            "select * from bookings b where b.booker_id = 1 and b.end_time < now() " +
+                    "order by b.start_time desc, b.id desc limit 11",
+            "select b.* from bookings b join items i on b.item_id = i.id where i.owner_id = 1 " +
+                    "order by b.start_time desc, b.id desc limit 11",
+            "select * from bookings b where b.item_id = 1 and b.status = 'APPROVED' and b.start_time < now() " +
+                    "order by b.start_time desc limit 1",
+            "select * from bookings b where b.item_id in (1, 2) and b.status = 'APPROVED' and b.start_time > now()",
+            "select * from bookings b where b.item_id = 1 and b.booker_id = 2 and b.end_time < now() " +
+                    "and b.status = 'APPROVED'",
+            "select * from items i where i.owner_id = 1 limit 11",
+            "select * from items i where i.request_id in (1, 2)",
+            "select * from comments c where c.item_id in (1, 2)",
+            "select * from requests r where r.requester_id = 1 order by r.create_date desc"
+    })
+    void hotQueryUsesIndex(String query) {
+        String plan = jdbcTemplate.queryForObject("explain " + query, String.class);
+
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "IDX_REQUESTS_REQUESTER_CREATED",
+            "IDX_ITEMS_OWNER",
+            "IDX_ITEMS_REQUEST",
+            "IDX_BOOKINGS_BOOKER_START",
+            "IDX_BOOKINGS_BOOKER_STATUS_START",
+            "IDX_BOOKINGS_ITEM_STATUS_START",
+            "IDX_BOOKINGS_ITEM_BOOKER_END",
+            "IDX_COMMENTS_ITEM"
+    })
+    void indexIsCreated(String indexName) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.indexes where index_name = ?", Integer.class, indexName);
+
+        assertEquals(1, count);
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(interval(1L, 10, 20));
+
+        assertFalse(tree.overlaps(hours(20), hours(30)));
+        assertFalse(tree.overlaps(hours(0), hours(10)));
+        assertTrue(tree.overlaps(hours(19), hours(30)));
+        assertTrue(tree.overlaps(hours(12), hours(13)));
+        assertTrue(tree.overlaps(hours(0), hours(40)));
+    }
+
+    @Test
+    void removeAndReplaceById() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(interval(1L, 10, 20));
+        tree.add(interval(1L, 30, 40));
+
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(hours(10), hours(20)));
+
+        tree.remove(1L);
+        tree.remove(2L);
+
+        assertEquals(0, tree.size());
+        assertFalse(tree.overlaps(hours(0), hours(100)));
+    }
+
+    @Test
+    void matchesLinearScanOnRandomIntervals() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<BookingInterval> intervals = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            int start = random.nextInt(10_000);
+            BookingInterval interval = interval(id, start, start + 1 + random.nextInt(50));
+            intervals.add(interval);
+            tree.add(interval);
+        }
+        for (int i = 0; i < 500; i++) {
+            BookingInterval removed = intervals.remove(random.nextInt(intervals.size()));
+            tree.remove(removed.getBookingId());
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            int from = random.nextInt(10_100);
+            LocalDateTime queryFrom = hours(from);
+            LocalDateTime queryTo = hours(from + 1 + random.nextInt(20));
+            List<BookingInterval> expected = intervals.stream()
+                    .filter(interval -> interval.overlaps(queryFrom, queryTo))
+                    .sorted(Comparator.comparing(BookingInterval::getStart)
+                            .thenComparing(BookingInterval::getBookingId))
+                    .collect(Collectors.toList());
+
+            assertEquals(!expected.isEmpty(), tree.overlaps(queryFrom, queryTo));
+            assertEquals(expected, tree.findOverlapping(queryFrom, queryTo));
+        }
+        assertEquals(1500, tree.size());
+    }
+
+    private static BookingInterval interval(Long id, int startHour, int endHour) {
+        return new BookingInterval(id, hours(startHour), hours(endHour));
+    }
+
+    private static LocalDateTime hours(int hours) {
+        return BASE.plusHours(hours);
+    }
+}
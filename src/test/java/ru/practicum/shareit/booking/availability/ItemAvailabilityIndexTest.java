@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.datasource.PrimaryReads;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Test
+    protected void holdsAtMostMaxSizeTrees() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, PrimaryReads.direct(), 2, Duration.ofMinutes(5));
+        when(bookingRepository.findIntervalsEndingAfter(anyLong(), eq(ItemAvailabilityIndex.ACTIVE_STATUSES), any()))
+                .thenAnswer(invocation -> List.of(interval(invocation.getArgument(0))));
+
+        assertTrue(index.isBooked(1L, BASE, BASE.plusHours(1)));
+        assertTrue(index.isBooked(2L, BASE, BASE.plusHours(1)));
+        assertTrue(index.isBooked(1L, BASE, BASE.plusHours(1)));
+        assertTrue(index.isBooked(3L, BASE, BASE.plusHours(1)));
+        assertTrue(index.isBooked(1L, BASE, BASE.plusHours(1)));
+        assertTrue(index.isBooked(2L, BASE, BASE.plusHours(1)));
+
+        assertEquals(index.size(), 2);
+        verify(bookingRepository, times(1)).findIntervalsEndingAfter(eq(1L), any(), any());
+        verify(bookingRepository, times(2)).findIntervalsEndingAfter(eq(2L), any(), any());
+    }
+
+    @Test
+    protected void reloadsExpiredTrees() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, PrimaryReads.direct(), 2, Duration.ZERO);
+        when(bookingRepository.findIntervalsEndingAfter(eq(1L), eq(ItemAvailabilityIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of(interval(1L)));
+
+        index.isBooked(1L, BASE, BASE.plusHours(1));
+        index.isBooked(1L, BASE, BASE.plusHours(1));
+
+        verify(bookingRepository, times(2)).findIntervalsEndingAfter(eq(1L), any(), any());
+    }
+
+    @Test
+    protected void keepsFreeItems() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, PrimaryReads.direct(), 2, Duration.ofMinutes(5));
+        when(bookingRepository.findIntervalsEndingAfter(eq(1L), eq(ItemAvailabilityIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of());
+
+        assertFalse(index.isBooked(1L, BASE, BASE.plusHours(1)));
+        assertTrue(index.findBooked(1L, BASE, BASE.plusHours(1)).isEmpty());
+
+        assertEquals(index.size(), 1);
+        verify(bookingRepository, times(1)).findIntervalsEndingAfter(eq(1L), any(), any());
+    }
+
+    @Test
+    protected void removingLastBookingKeepsEmptyTree() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, PrimaryReads.direct(), 2, Duration.ofMinutes(5));
+        when(bookingRepository.findIntervalsEndingAfter(eq(1L), eq(ItemAvailabilityIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of(interval(1L)));
+
+        assertTrue(index.isBooked(1L, BASE, BASE.plusHours(1)));
+        index.remove(1L, 1L);
+
+        assertFalse(index.isBooked(1L, BASE, BASE.plusHours(1)));
+        assertEquals(index.size(), 1);
+        verify(bookingRepository, times(1)).findIntervalsEndingAfter(eq(1L), any(), any());
+    }
+
+    @Test
+    protected void answersPastPeriodsFromDatabase() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, PrimaryReads.direct(), 2, Duration.ofMinutes(5));
+        LocalDateTime from = LocalDateTime.now().minusDays(2);
+        BookingInterval ended = new BookingInterval(1L, from, from.plusDays(1));
+        when(bookingRepository.findOverlappingIntervals(1L, ItemAvailabilityIndex.ACTIVE_STATUSES, from, from.plusDays(3)))
+                .thenReturn(List.of(ended));
+
+        assertEquals(index.findBooked(1L, from, from.plusDays(3)), List.of(ended));
+
+        assertEquals(index.size(), 0);
+        verify(bookingRepository, never()).findIntervalsEndingAfter(anyLong(), any(), any());
+    }
+
+    @Test
+    protected void isLoadedAsBookedNeverLoads() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, PrimaryReads.direct(), 2, Duration.ofMinutes(5));
+
+        assertFalse(index.isLoadedAsBooked(1L, BASE, BASE.plusHours(1)));
+
+        verifyNoInteractions(bookingRepository);
+    }
+
+    private static BookingInterval interval(Long id) {
+        return new BookingInterval(id, BASE, BASE.plusHours(2));
+    }
+}
@@ -7,23 +7,37 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.transfer.BookingExportService;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.transfer.TransferFormat;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -36,6 +50,9 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingExportService bookingExportService;
+
     @Autowired
     private MockMvc mvc;
 
@@ -106,6 +123,24 @@ class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    protected void createBatchTest() throws Exception {
+        when(bookingService.createBookings(1L, List.of(bookingShortDto, bookingShortDto)))
+                .thenReturn(List.of(new BookingBatchResultDto(0, bookingDto, null),
+                        new BookingBatchResultDto(1, null, "item id 1 already booked for these dates")));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingShortDto, bookingShortDto)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("item id 1 already booked for these dates")));
+    }
+
     @Test
     protected void updateStatusTest() throws Exception {
         bookingDto.setStatus(BookingStatus.APPROVED);
@@ -185,4 +220,65 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].booker.id", is(bookingDto.getBooker().getId()), Long.class))
                 .andExpect(jsonPath("$[0].status", is(bookingDto.getStatus().toString())));
     }
+
+    @Test
+    protected void getUsersBookingsReturnsNextCursorTest() throws Exception {
+        when(bookingService.getUsersBookings(1L, "ALL", 0, 1))
+                .thenReturn(List.of(bookingDto));
+
+        mvc.perform(get("/bookings")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", BookingCursor.of(bookingDto).encode()))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @Test
+    protected void getOwnersBookingsByCursorTest() throws Exception {
+        String cursor = new BookingCursor(start.plusDays(1L), 2L).encode();
+        when(bookingService.getOwnersBookingsAfter(1L, "ALL", cursor, 10))
+                .thenReturn(new SliceImpl<>(List.of(bookingDto)));
+
+        mvc.perform(get("/bookings/owner")
+                        .param("cursor", cursor)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @Test
+    protected void exportOwnersBookingsTest() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(1);
+            output.write("id,start\n1,2030-01-01T10:00:00\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(bookingExportService).exportOwnersBookings(eq(1L), any(), eq(TransferFormat.CSV));
+
+        mvc.perform(get("/bookings/owner/export?format=csv")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string("id,start\n1,2030-01-01T10:00:00\n"));
+    }
+
+    @Test
+    protected void exportOwnersBookingsUnknownFormatTest() throws Exception {
+        mvc.perform(get("/bookings/owner/export?format=xml")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    protected void exportOwnersBookingsUnknownUserTest() throws Exception {
+        doThrow(new UserNotFoundException("user not found")).when(bookingExportService).checkOwner(99L);
+
+        mvc.perform(get("/bookings/owner/export?format=csv")
+                        .header("X-Sharer-User-Id", 99L))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
 }
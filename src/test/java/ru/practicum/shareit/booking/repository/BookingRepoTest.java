@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingRowDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@DirtiesContext
+public class BookingRepoTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    protected void findBookingsBeforeCursorSeeksOnStartAndId() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("info")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).withNano(0);
+        Booking first = save(item, booker, start);
+        Booking second = save(item, booker, start);
+        Booking third = save(item, booker, start.minusHours(1L));
+
+        List<Long> firstPage = bookingRepository
+                .findBookerBookings(booker.getId(), PageRequest.of(0, 2))
+                .stream().map(BookingRowDto::getId).collect(Collectors.toList());
+        assertEquals(firstPage, List.of(second.getId(), first.getId()));
+
+        Slice<BookingRowDto> secondPage = bookingRepository.findBookerBookingsBefore(booker.getId(),
+                start, first.getId(), PageRequest.of(0, 2));
+        assertEquals(secondPage.getContent().size(), 1);
+        assertEquals(secondPage.getContent().get(0).getId(), third.getId());
+        assertEquals(secondPage.getContent().get(0).getItemName(), item.getName());
+        assertEquals(secondPage.getContent().get(0).getBookerEmail(), booker.getEmail());
+        assertNull(secondPage.getContent().get(0).getItemRequestId());
+        assertFalse(secondPage.hasNext());
+
+        Slice<BookingRowDto> ownerPage = bookingRepository.findOwnerFutureBookingsBefore(owner.getId(),
+                LocalDateTime.now(), start, second.getId(), PageRequest.of(0, 1));
+        assertEquals(ownerPage.getContent().get(0).getId(), first.getId());
+        assertTrue(ownerPage.hasNext());
+    }
+
+    @Test
+    protected void searchAvailableByTextSkipsItemsBookedInWindow() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        Item booked = itemRepository.save(Item.builder().name("drill").description("cordless").available(true)
+                .owner(owner).build());
+        Item rejected = itemRepository.save(Item.builder().name("old drill").description("corded").available(true)
+                .owner(owner).build());
+        Item free = itemRepository.save(Item.builder().name("hammer drill").description("sds").available(true)
+                .owner(owner).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).withNano(0);
+        save(booked, booker, start);
+        Booking rejectedBooking = save(rejected, booker, start);
+        rejectedBooking.setBookingStatus(BookingStatus.REJECTED);
+        bookingRepository.save(rejectedBooking);
+        List<BookingStatus> active = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        List<Item> found = itemRepository.searchAvailableByText("DRILL", active, start.plusHours(12L),
+                start.plusDays(2L), PageRequest.of(0, 10)).getContent();
+        assertEquals(found.stream().map(Item::getId).collect(Collectors.toSet()),
+                Set.of(rejected.getId(), free.getId()));
+
+        List<Item> afterBooking = itemRepository.searchAvailableByText("drill", active, start.plusDays(1L),
+                start.plusDays(2L), PageRequest.of(0, 10)).getContent();
+        assertEquals(afterBooking.size(), 3);
+
+        assertEquals(bookingRepository.findBookedItemIds(List.of(booked.getId(), rejected.getId(), free.getId()),
+                active, start.minusHours(1L), start.plusHours(1L)), List.of(booked.getId()));
+    }
+
+    private Booking save(Item item, User booker, LocalDateTime start) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.WAITING)
+                .build());
+    }
+}
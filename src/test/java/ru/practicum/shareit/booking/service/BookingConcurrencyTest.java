@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.exception.NotAvailableException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingConcurrencyTest {
+    private static final int THREADS = 64;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    private Long ownerId;
+
+    private List<Long> bookerIds;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.createUser(UserDto.builder().name("owner").email("concurrency-owner@mail.ru").build()).getId();
+        bookerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(userService.createUser(UserDto.builder()
+                    .name("booker" + i)
+                    .email("concurrency-booker" + i + "@mail.ru")
+                    .build()).getId());
+        }
+    }
+
+    @Test
+    void onlyOneOfConcurrentOverlappingBookingsSucceeds() throws Exception {
+        Long itemId = createItem("drill");
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(i -> {
+            try {
+                bookingService.createBooking(bookerIds.get(i), BookingShortDto.builder()
+                        .itemId(itemId)
+                        .start(start.plusHours(i % 4))
+                        .end(start.plusDays(1L))
+                        .build());
+            } catch (NotAvailableException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, bookingService.getOwnersBookings(ownerId, "ALL", 0, THREADS).size());
+        assertEquals(THREADS - 1, rejected.get());
+    }
+
+    @Test
+    void concurrentBookingsOfDifferentItemsAllSucceed() throws Exception {
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            itemIds.add(createItem("item" + i));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+
+        runConcurrently(i -> bookingService.createBooking(bookerIds.get(i), BookingShortDto.builder()
+                .itemId(itemIds.get(i))
+                .start(start)
+                .end(start.plusDays(1L))
+                .build()));
+
+        assertEquals(THREADS, bookingService.getOwnersBookings(ownerId, "ALL", 0, THREADS).size());
+    }
+
+    @Test
+    void concurrentBatchesOverSameItemsBookEachItemOnce() throws Exception {
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            itemIds.add(createItem("item" + i));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        List<BookingShortDto> batch = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            batch.add(BookingShortDto.builder().itemId(itemId).start(start).end(start.plusDays(1L)).build());
+        }
+        AtomicInteger created = new AtomicInteger();
+
+        runConcurrently(i -> {
+            List<BookingShortDto> shuffled = new ArrayList<>(batch);
+            Collections.shuffle(shuffled, new Random(i));
+            bookingService.createBookings(bookerIds.get(i), shuffled).stream()
+                    .filter(result -> result.getBooking() != null)
+                    .forEach(result -> created.incrementAndGet());
+        });
+
+        assertEquals(itemIds.size(), created.get());
+        assertEquals(itemIds.size(), bookingService.getOwnersBookings(ownerId, "ALL", 0, THREADS).size());
+    }
+
+    private Long createItem(String name) {
+        return itemService.createItem(ownerId, ItemDto.builder()
+                .name(name)
+                .description("description")
+                .available(true)
+                .build()).getId();
+    }
+
+    private void runConcurrently(IntConsumer task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                ready.await();
+                task.accept(index);
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private interface IntConsumer {
+        void accept(int value);
+    }
+}
@@ -6,26 +6,49 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRowDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.datasource.PrimaryReads;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -34,6 +57,8 @@ public class BookingServiceTest {
     @Autowired
     private BookingService bookingService;
 
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+
     @Mock
     private UserRepository userRepository;
 
@@ -43,9 +68,14 @@ public class BookingServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     private void setUp() {
-        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository);
+        itemAvailabilityIndex = new ItemAvailabilityIndex(bookingRepository, PrimaryReads.direct(), 100, Duration.ofMinutes(5));
+        bookingService = new BookingServiceImpl(bookingRepository, new UserCache(userRepository, PrimaryReads.direct(), 100, Duration.ofMinutes(5)), itemRepository,
+                new ItemLocks(16), itemAvailabilityIndex, new TransactionTemplate(transactionManager));
     }
 
     @Test
@@ -88,7 +118,7 @@ public class BookingServiceTest {
                 .build();
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
         when(bookingRepository.save(any()))
                 .thenReturn(booking);
 
@@ -133,7 +163,7 @@ public class BookingServiceTest {
 
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.empty());
 
         ItemNotFoundException itemNotFoundException = assertThrows(ItemNotFoundException.class,
@@ -165,7 +195,7 @@ public class BookingServiceTest {
 
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(owner));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
 
         UserNotFoundException userNotFoundException = assertThrows(UserNotFoundException.class,
@@ -201,7 +231,7 @@ public class BookingServiceTest {
                 .build();
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
 
         NotAvailableException notAvailableException = assertThrows(NotAvailableException.class,
@@ -237,7 +267,7 @@ public class BookingServiceTest {
                 .build();
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
 
         WrongDateException wrongDateException = assertThrows(WrongDateException.class,
@@ -273,7 +303,7 @@ public class BookingServiceTest {
                 .build();
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
 
         WrongDateException wrongDateException = assertThrows(WrongDateException.class,
@@ -315,8 +345,8 @@ public class BookingServiceTest {
                 .build();
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.findById(any()))
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
+        when(bookingRepository.findWithItemAndBookerById(any()))
                 .thenReturn(Optional.of(booking));
 
         BookingDto bookingDto = bookingService
@@ -359,8 +389,8 @@ public class BookingServiceTest {
                 .build();
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.findById(any()))
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
+        when(bookingRepository.findWithItemAndBookerById(any()))
                 .thenReturn(Optional.of(booking));
 
         BookingDto bookingDto = bookingService
@@ -389,7 +419,7 @@ public class BookingServiceTest {
 
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.empty());
 
         BookingNotFoundException bookingNotFoundException = assertThrows(BookingNotFoundException.class,
@@ -428,7 +458,7 @@ public class BookingServiceTest {
                 .build();
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
         NotAllowedActionException notAllowedActionException = assertThrows(NotAllowedActionException.class,
@@ -467,7 +497,7 @@ public class BookingServiceTest {
                 .build();
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
         NotAllowedActionException notAllowedStatusException = assertThrows(NotAllowedActionException.class,
@@ -506,7 +536,7 @@ public class BookingServiceTest {
                 .build();
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
         InvalidUserException invalidUserException = assertThrows(InvalidUserException.class,
@@ -547,10 +577,10 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.WAITING)
                 .build();
 
-        when(bookingRepository.findById(1L))
+        when(bookingRepository.findWithItemAndBookerById(1L))
                 .thenReturn(Optional.of(booking));
-        when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
+        when(userRepository.existsUserById(1L))
+                .thenReturn(true);
 
         BookingDto bookingDto = bookingService.getBooking(1L, 1L);
         assertNotNull(bookingDto);
@@ -558,14 +588,9 @@ public class BookingServiceTest {
 
     @Test
     protected void getBookingThrowsBookingNotFoundException() {
-        User user = User.builder()
-                .id(1L)
-                .name("user")
-                .email("user@mail.ru")
-                .build();
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
+                .thenReturn(true);
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.empty());
 
         BookingNotFoundException bookingNotFoundException = assertThrows(BookingNotFoundException.class,
@@ -608,10 +633,10 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.of(booking));
-        when(userRepository.findById(4L))
-                .thenReturn(Optional.of(anotherUser));
+        when(userRepository.existsUserById(4L))
+                .thenReturn(true);
 
         InvalidUserException invalidUserException = assertThrows(InvalidUserException.class,
                 () -> bookingService.getBooking(4L, 1L));
@@ -637,7 +662,7 @@ public class BookingServiceTest {
                 .name("booker")
                 .email("booker@mail.ru")
                 .build();
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(3L))
                 .thenReturn(Optional.of(booker));
@@ -672,8 +697,8 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(any(), any()))
-                .thenReturn(new PageImpl<>(List.of(futureBooking, pastBooking, presentBooking)));
+        when(bookingRepository.findBookerBookings(any(), any()))
+                .thenReturn(new PageImpl<>(rows(futureBooking, pastBooking, presentBooking)));
 
         List<BookingDto> bookingDtos = bookingService
                 .getUsersBookings(3L, State.ALL.toString(), 0, 11);
@@ -702,7 +727,7 @@ public class BookingServiceTest {
                 .name("booker")
                 .email("booker@mail.ru")
                 .build();
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(3L))
                 .thenReturn(Optional.of(booker));
@@ -715,8 +740,8 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(futureBooking)));
+        when(bookingRepository.findBookerFutureBookings(any(), any(), any()))
+                .thenReturn(new PageImpl<>(rows(futureBooking)));
 
         List<BookingDto> bookingDtos = bookingService
                 .getUsersBookings(3L, State.FUTURE.toString(), 0, 11);
@@ -744,7 +769,7 @@ public class BookingServiceTest {
                 .name("booker")
                 .email("booker@mail.ru")
                 .build();
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(3L))
                 .thenReturn(Optional.of(booker));
@@ -759,8 +784,8 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(pastBooking)));
+        when(bookingRepository.findBookerPastBookings(any(), any(), any()))
+                .thenReturn(new PageImpl<>(rows(pastBooking)));
 
         List<BookingDto> bookingInfoDtoList = bookingService
                 .getUsersBookings(3L, State.PAST.toString(), 0, 11);
@@ -788,7 +813,7 @@ public class BookingServiceTest {
                 .name("booker")
                 .email("booker@mail.ru")
                 .build();
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(3L))
                 .thenReturn(Optional.of(booker));
@@ -803,8 +828,8 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(any(), any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(currentBooking)));
+        when(bookingRepository.findBookerCurrentBookings(any(), any(), any()))
+                .thenReturn(new PageImpl<>(rows(currentBooking)));
 
         List<BookingDto> bookingDtos = bookingService
                 .getUsersBookings(3L, State.CURRENT.toString(), 0, 11);
@@ -833,7 +858,7 @@ public class BookingServiceTest {
                 .name("booker")
                 .email("booker@mail.ru")
                 .build();
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(3L))
                 .thenReturn(Optional.of(booker));
@@ -846,8 +871,8 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.WAITING)
                 .build();
 
-        when(bookingRepository.findAllByBookerIdAndBookingStatusOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(waitingBooking)));
+        when(bookingRepository.findBookerBookingsByStatus(any(), any(), any()))
+                .thenReturn(new PageImpl<>(rows(waitingBooking)));
 
         List<BookingDto> bookingDtos = bookingService
                 .getUsersBookings(3L, State.WAITING.toString(), 0, 11);
@@ -876,7 +901,7 @@ public class BookingServiceTest {
                 .name("booker")
                 .email("booker@mail.ru")
                 .build();
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(3L))
                 .thenReturn(Optional.of(booker));
@@ -889,8 +914,8 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.REJECTED)
                 .build();
 
-        when(bookingRepository.findAllByBookerIdAndBookingStatusOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(rejectedBooking)));
+        when(bookingRepository.findBookerBookingsByStatus(any(), any(), any()))
+                .thenReturn(new PageImpl<>(rows(rejectedBooking)));
 
         List<BookingDto> bookingInfoDtoList = bookingService
                 .getUsersBookings(3L, State.REJECTED.toString(), 0, 11);
@@ -906,7 +931,7 @@ public class BookingServiceTest {
                 .email("booker@mail.ru")
                 .build();
 
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
@@ -918,7 +943,7 @@ public class BookingServiceTest {
 
     @Test
     protected void getUsersBookingsThrowsUserNotFoundException() {
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(false);
 
         UserNotFoundException notFoundException = assertThrows(UserNotFoundException.class,
@@ -971,13 +996,13 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
         IncorrectPaginationException incorrectPaginationException = assertThrows(IncorrectPaginationException.class,
@@ -1049,7 +1074,7 @@ public class BookingServiceTest {
                 .email("booker@mail.ru")
                 .build();
 
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
 
         when(userRepository.findById(1L))
@@ -1080,8 +1105,8 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(any(), any()))
-                .thenReturn(new PageImpl<>(List.of(futureBooking, pastBooking, currentBooking)));
+        when(bookingRepository.findOwnerBookings(any(), any()))
+                .thenReturn(new PageImpl<>(rows(futureBooking, pastBooking, currentBooking)));
 
         List<BookingDto> bookingDtos = bookingService
                 .getOwnersBookings(1L, "ALL", 0, 11);
@@ -1111,7 +1136,7 @@ public class BookingServiceTest {
                 .email("booker@mail.ru")
                 .build();
 
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(1L))
                 .thenReturn(Optional.of(owner));
@@ -1125,8 +1150,8 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(futureBooking)));
+        when(bookingRepository.findOwnerFutureBookings(any(), any(), any()))
+                .thenReturn(new PageImpl<>(rows(futureBooking)));
 
         List<BookingDto> bookingDtos = bookingService
                 .getOwnersBookings(1L, "FUTURE", 0, 11);
@@ -1156,7 +1181,7 @@ public class BookingServiceTest {
                 .email("booker@mail.ru")
                 .build();
 
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(1L))
                 .thenReturn(Optional.of(owner));
@@ -1170,8 +1195,8 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(pastBooking)));
+        when(bookingRepository.findOwnerPastBookings(any(), any(), any()))
+                .thenReturn(new PageImpl<>(rows(pastBooking)));
 
         List<BookingDto> bookingDtos = bookingService
                 .getOwnersBookings(1L, "PAST", 0, 11);
@@ -1201,7 +1226,7 @@ public class BookingServiceTest {
                 .email("booker@mail.ru")
                 .build();
 
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(1L))
                 .thenReturn(Optional.of(owner));
@@ -1216,8 +1241,8 @@ public class BookingServiceTest {
                 .build();
 
         when(bookingRepository
-                .findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(any(), any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(currentBooking)));
+                .findOwnerCurrentBookings(any(), any(), any()))
+                .thenReturn(new PageImpl<>(rows(currentBooking)));
 
         List<BookingDto> bookingDtos = bookingService
                 .getOwnersBookings(1L, "CURRENT", 0, 11);
@@ -1247,7 +1272,7 @@ public class BookingServiceTest {
                 .email("booker@mail.ru")
                 .build();
 
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(1L))
                 .thenReturn(Optional.of(owner));
@@ -1262,8 +1287,8 @@ public class BookingServiceTest {
                 .build();
 
         when(bookingRepository
-                .findAllByItemOwnerIdAndBookingStatusOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(waitingBooking)));
+                .findOwnerBookingsByStatus(any(), any(), any()))
+                .thenReturn(new PageImpl<>(rows(waitingBooking)));
 
         List<BookingDto> bookingDtos = bookingService
                 .getOwnersBookings(1L, "WAITING", 0, 11);
@@ -1293,7 +1318,7 @@ public class BookingServiceTest {
                 .email("booker@mail.ru")
                 .build();
 
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(1L))
                 .thenReturn(Optional.of(owner));
@@ -1308,8 +1333,8 @@ public class BookingServiceTest {
                 .build();
 
         when(bookingRepository
-                .findAllByItemOwnerIdAndBookingStatusOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(rejectedBooking)));
+                .findOwnerBookingsByStatus(any(), any(), any()))
+                .thenReturn(new PageImpl<>(rows(rejectedBooking)));
 
         List<BookingDto> bookingDtos = bookingService
                 .getOwnersBookings(1L, "REJECTED", 0, 11);
@@ -1324,7 +1349,7 @@ public class BookingServiceTest {
                 .name("owner")
                 .email("owner@mail.ru")
                 .build();
-        when(userRepository.existsById(any()))
+        when(userRepository.existsUserById(any()))
                 .thenReturn(true);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(owner));
@@ -1335,7 +1360,7 @@ public class BookingServiceTest {
 
     @Test
     protected void getOwnersBookingsThrowsUserNotFoundException() {
-        when(userRepository.existsById(any()))
+        when(userRepository.existsUserById(any()))
                 .thenReturn(false);
         UserNotFoundException userNotFoundException = assertThrows(UserNotFoundException.class,
                 () -> bookingService.getOwnersBookings(1L, "ALL", 0, 11));
@@ -1371,13 +1396,13 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(userRepository.existsById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
                 .thenReturn(true);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booker));
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
         IncorrectPaginationException paginationException = assertThrows(IncorrectPaginationException.class,
@@ -1418,5 +1443,214 @@ public class BookingServiceTest {
         assertEquals(paginationException.getMessage(), "pagination error");
     }
 
+    @Test
+    protected void getUsersBookingsAfterCursor() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        Item item = Item.builder().id(1L).name("item").description("description").available(true).owner(owner).build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        LocalDateTime cursorStart = LocalDateTime.now().minusDays(1L);
+        Booking booking = Booking.builder()
+                .id(4L)
+                .start(cursorStart.minusDays(2L))
+                .end(cursorStart.minusDays(1L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.APPROVED)
+                .build();
+        when(userRepository.existsUserById(3L))
+                .thenReturn(true);
+        when(bookingRepository.findBookerPastBookingsBefore(eq(3L), any(), eq(cursorStart), eq(5L), any()))
+                .thenReturn(new SliceImpl<>(rows(booking), PageRequest.of(0, 1), true));
+
+        Slice<BookingDto> bookingDtos = bookingService.getUsersBookingsAfter(3L, State.PAST.toString(),
+                new BookingCursor(cursorStart, 5L).encode(), 1);
+
+        assertEquals(bookingDtos.getContent().size(), 1);
+        assertEquals(bookingDtos.getContent().get(0).getId(), booking.getId());
+        assertTrue(bookingDtos.hasNext());
+    }
+
+    @Test
+    protected void getOwnersBookingsAfterCursor() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        Item item = Item.builder().id(1L).name("item").description("description").available(true).owner(owner).build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        LocalDateTime cursorStart = LocalDateTime.now().plusDays(10L);
+        Booking booking = Booking.builder()
+                .id(2L)
+                .start(cursorStart.minusDays(2L))
+                .end(cursorStart.minusDays(1L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.WAITING)
+                .build();
+        when(userRepository.existsUserById(1L))
+                .thenReturn(true);
+        when(bookingRepository.findOwnerBookingsByStatusBefore(eq(1L), eq(BookingStatus.WAITING),
+                eq(cursorStart), eq(3L), any()))
+                .thenReturn(new SliceImpl<>(rows(booking)));
+
+        Slice<BookingDto> bookingDtos = bookingService.getOwnersBookingsAfter(1L, State.WAITING.toString(),
+                new BookingCursor(cursorStart, 3L).encode(), 10);
+
+        assertEquals(bookingDtos.getContent().get(0).getId(), booking.getId());
+        assertFalse(bookingDtos.hasNext());
+    }
+
+    @Test
+    protected void getBookingsAfterInvalidCursorThrowsIncorrectPaginationException() {
+        IncorrectPaginationException paginationException = assertThrows(IncorrectPaginationException.class,
+                () -> bookingService.getUsersBookingsAfter(1L, "ALL", "not a cursor", 10));
+        assertEquals(paginationException.getMessage(), "invalid cursor not a cursor");
+
+        paginationException = assertThrows(IncorrectPaginationException.class,
+                () -> bookingService.getOwnersBookingsAfter(1L, "ALL", "", 10));
+        assertEquals(paginationException.getMessage(), "invalid cursor ");
+
+        paginationException = assertThrows(IncorrectPaginationException.class,
+                () -> bookingService.getOwnersBookingsAfter(1L, "ALL", "", 0));
+        assertEquals(paginationException.getMessage(), "pagination error");
+    }
+
+    @Test
+    protected void createBookingOverlappingThrowsNotAvailableException() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        Item item = Item.builder().id(1L).name("item1").description("description").available(true).owner(owner).build();
+        BookingShortDto bookingShortDto = BookingShortDto.builder()
+                .start(LocalDateTime.now().plusDays(1L))
+                .end(LocalDateTime.now().plusDays(2L))
+                .itemId(1L)
+                .build();
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booker));
+        when(itemRepository.findByIdForUpdate(anyLong()))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.existsOverlapping(eq(1L), any(), eq(bookingShortDto.getStart()), eq(bookingShortDto.getEnd())))
+                .thenReturn(true);
+
+        NotAvailableException notAvailableException = assertThrows(NotAvailableException.class,
+                () -> bookingService.createBooking(3L, bookingShortDto));
+        assertEquals(notAvailableException.getMessage(), "item id 1 already booked for these dates");
+    }
 
+    @Test
+    protected void createBookingIgnoresStaleAvailabilityIndexTest() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        Item item = Item.builder().id(1L).name("item1").description("description").available(true).owner(owner).build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        BookingInterval rejectedElsewhere = new BookingInterval(7L, start, start.plusDays(2L));
+        BookingShortDto bookingShortDto = BookingShortDto.builder()
+                .start(start.plusDays(1L))
+                .end(start.plusDays(3L))
+                .itemId(1L)
+                .build();
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booker));
+        when(bookingRepository.findIntervalsEndingAfter(eq(1L), eq(ItemAvailabilityIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of(rejectedElsewhere))
+                .thenReturn(List.of());
+        when(itemRepository.findByIdForUpdate(anyLong()))
+                .thenReturn(Optional.of(item));
+        assertTrue(itemAvailabilityIndex.isBooked(1L, bookingShortDto.getStart(), bookingShortDto.getEnd()));
+
+        BookingDto bookingDto = bookingService.createBooking(3L, bookingShortDto);
+        assertEquals(bookingDto.getStart(), bookingShortDto.getStart());
+        bookingService.createBooking(3L, BookingShortDto.builder()
+                .start(start.plusDays(5L))
+                .end(start.plusDays(6L))
+                .itemId(1L)
+                .build());
+
+        verify(bookingRepository, times(2)).existsOverlapping(eq(1L), any(), any(), any());
+        verify(bookingRepository, times(1)).findIntervalsEndingAfter(eq(1L), any(), any());
+        assertEquals(itemAvailabilityIndex.size(), 0);
+    }
+
+    @Test
+    protected void createBookingsReportsResultPerElementTest() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        Item item1 = Item.builder().id(1L).name("item1").description("description").available(true).owner(owner).build();
+        Item item2 = Item.builder().id(2L).name("item2").description("description").available(true).owner(owner).build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        Booking existing = Booking.builder().id(7L).item(item1).booker(owner).start(start).end(start.plusDays(1L))
+                .bookingStatus(BookingStatus.APPROVED).build();
+        List<BookingShortDto> batch = Arrays.asList(
+                new BookingShortDto(start, start.plusDays(1L), 2L),
+                new BookingShortDto(start.plusHours(12L), start.plusDays(2L), 1L),
+                new BookingShortDto(start.plusDays(1L), start.plusDays(2L), 1L),
+                new BookingShortDto(start.plusHours(1L), start.plusHours(2L), 2L),
+                new BookingShortDto(start, start.plusDays(1L), 99L),
+                new BookingShortDto(start.plusDays(1L), start, 2L),
+                null);
+        when(userRepository.findById(3L))
+                .thenReturn(Optional.of(booker));
+        when(itemRepository.findAllByIdForUpdate(List.of(1L, 2L, 99L)))
+                .thenReturn(List.of(item1, item2));
+        when(bookingRepository.findAllOverlapping(List.of(1L, 2L), ItemAvailabilityIndex.ACTIVE_STATUSES,
+                start, start.plusDays(2L)))
+                .thenReturn(List.of(existing));
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(3L, batch);
+
+        assertEquals(7, results.size());
+        assertEquals(2L, results.get(0).getBooking().getItem().getId());
+        assertEquals("item id 1 already booked for these dates", results.get(1).getError());
+        assertEquals(1L, results.get(2).getBooking().getItem().getId());
+        assertEquals("item id 2 already booked for these dates", results.get(3).getError());
+        assertEquals("item not found", results.get(4).getError());
+        assertEquals("date error exception", results.get(5).getError());
+        assertEquals("booking is empty", results.get(6).getError());
+        verify(bookingRepository).saveAll(argThat(bookings -> ((List<Booking>) bookings).size() == 2));
+    }
+
+    @Test
+    protected void createBookingsReportsFailedGroupTest() {
+        bookingService = new BookingServiceImpl(bookingRepository, new UserCache(userRepository, PrimaryReads.direct(), 100, Duration.ofMinutes(5)), itemRepository,
+                new ItemLocks(32), itemAvailabilityIndex, new TransactionTemplate(transactionManager));
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        // 17 items on 17 stripes are booked in two groups of at most 16 stripes
+        List<BookingShortDto> batch = LongStream.rangeClosed(1L, 17L)
+                .mapToObj(itemId -> new BookingShortDto(start, start.plusDays(1L), itemId))
+                .collect(Collectors.toList());
+        when(userRepository.findById(3L))
+                .thenReturn(Optional.of(booker));
+        when(itemRepository.findAllByIdForUpdate(any()))
+                .thenAnswer(invocation -> ((List<Long>) invocation.getArgument(0)).stream()
+                        .map(itemId -> Item.builder().id(itemId).name("item" + itemId).description("description")
+                                .available(true).owner(owner).build())
+                        .collect(Collectors.toList()));
+        when(bookingRepository.saveAll(any()))
+                .thenReturn(List.of())
+                .thenThrow(new DataIntegrityViolationException("constraint violated"));
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(3L, batch);
+
+        assertEquals(results.size(), 17);
+        for (int i = 0; i < 16; i++) {
+            assertEquals(results.get(i).getBooking().getItem().getId(), i + 1L);
+        }
+        assertNull(results.get(16).getBooking());
+        assertEquals(results.get(16).getError(), "booking could not be saved");
+    }
+
+    @Test
+    protected void createBookingsRejectsOversizedBatchTest() {
+        List<BookingShortDto> batch = Collections.nCopies(1001, new BookingShortDto());
+
+        assertThrows(NotAllowedActionException.class, () -> bookingService.createBookings(3L, batch));
+    }
+
+    private List<BookingRowDto> rows(Booking... bookings) {
+        return Arrays.stream(bookings)
+                .map(booking -> new BookingRowDto(booking.getId(), booking.getStart(), booking.getEnd(),
+                        booking.getBookingStatus(), booking.getItem().getId(), booking.getItem().getName(),
+                        booking.getItem().getDescription(), booking.getItem().getAvailable(), null,
+                        booking.getBooker().getId(), booking.getBooker().getName(), booking.getBooker().getEmail()))
+                .collect(Collectors.toList());
+    }
 }
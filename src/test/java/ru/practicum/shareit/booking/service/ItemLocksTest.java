@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemLocksTest {
+
+    @Test
+    void partitionKeepsItemsOfOneStripeTogether() {
+        ItemLocks itemLocks = new ItemLocks(8);
+        List<Long> itemIds = LongStream.range(0, 32).boxed().collect(Collectors.toList());
+
+        List<List<Long>> groups = itemLocks.partition(itemIds, 3);
+
+        assertEquals(List.of(
+                List.of(0L, 8L, 16L, 24L, 1L, 9L, 17L, 25L, 2L, 10L, 18L, 26L),
+                List.of(3L, 11L, 19L, 27L, 4L, 12L, 20L, 28L, 5L, 13L, 21L, 29L),
+                List.of(6L, 14L, 22L, 30L, 7L, 15L, 23L, 31L)), groups);
+    }
+
+    @Test
+    void partitionOfNoItemsIsEmpty() {
+        assertEquals(List.of(), new ItemLocks(8).partition(List.of(), 3));
+    }
+}
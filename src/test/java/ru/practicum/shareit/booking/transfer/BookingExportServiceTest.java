@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.transfer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.transfer.TransferFormat;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingExportServiceTest {
+    private static final int BOOKINGS = 50_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+
+    private Long bookerId;
+
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.createUser(UserDto.builder().name("owner").email("export-owner@mail.ru").build())
+                .getId();
+        bookerId = userService.createUser(UserDto.builder().name("booker").email("export-booker@mail.ru").build())
+                .getId();
+        itemId = itemService.createItem(ownerId, ItemDto.builder()
+                .name("drill, cordless")
+                .description("description")
+                .available(true)
+                .build()).getId();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= BOOKINGS; i++) {
+            rows.add(new Object[]{1_000_000L + i, Timestamp.valueOf(BASE.plusHours(i)),
+                    Timestamp.valueOf(BASE.plusHours(i + 1)), itemId, bookerId, "APPROVED"});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_time, end_time, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void exportsAllBookingsNewestFirstWithoutLoadingEntities() throws IOException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        LineCounter csv = new LineCounter();
+
+        bookingExportService.exportOwnersBookings(ownerId, csv, TransferFormat.CSV);
+
+        assertEquals(BOOKINGS + 1, csv.lines);
+        assertEquals("id,start,end,status,itemId,itemName,bookerId", csv.first);
+        assertEquals((1_000_000L + BOOKINGS) + "," + BASE.plusHours(BOOKINGS) + ":00,"
+                + BASE.plusHours(BOOKINGS + 1) + ":00,APPROVED," + itemId + ",\"drill, cordless\"," + bookerId, csv.second);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void exportsNdjson() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        bookingExportService.exportOwnersBookings(ownerId, output, TransferFormat.NDJSON);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(BOOKINGS, lines.length);
+        JsonNode last = objectMapper.readTree(lines[BOOKINGS - 1]);
+        assertEquals(1_000_001L, last.get("id").asLong());
+        assertEquals("2030-01-01T11:00:00", last.get("start").asText());
+        assertEquals("APPROVED", last.get("status").asText());
+        assertEquals(itemId, last.get("itemId").asLong());
+    }
+
+    @Test
+    void exportOfBookerIsEmptyAndUnknownUserFails() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        bookingExportService.exportOwnersBookings(bookerId, output, TransferFormat.NDJSON);
+
+        assertEquals(0, output.size());
+        assertThrows(UserNotFoundException.class,
+                () -> bookingExportService.exportOwnersBookings(999L, output, TransferFormat.CSV));
+    }
+
+    private static class LineCounter extends OutputStream {
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private int lines;
+        private String first;
+        private String second;
+
+        @Override
+        public void write(int b) {
+            if (b != '\n') {
+                line.write(b);
+                return;
+            }
+            lines++;
+            if (lines <= 2) {
+                String text = line.toString(StandardCharsets.UTF_8);
+                if (lines == 1) {
+                    first = text;
+                } else {
+                    second = text;
+                }
+            }
+            line.reset();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemRowDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestShortDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private CacheRegionStats cacheRegionStats;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ownerId = userService.createUser(UserDto.builder().name("owner").email("cache-owner@mail.ru").build()).getId();
+    }
+
+    @Test
+    void usersAreCachedByUserCacheAndSeeUpdates() {
+        userService.getUser(ownerId);
+        statistics.clear();
+
+        assertEquals("owner", userService.getUser(ownerId).getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        userService.updateUser(ownerId, UserDto.builder().name("renamed").build());
+
+        assertEquals("renamed", userService.getUser(ownerId).getName());
+        assertFalse(cacheRegionStats.hitRatios().containsKey("users"));
+    }
+
+    @Test
+    void itemLookupsHitCacheAndSeeUpdates() {
+        Long itemId = itemService.createItem(ownerId, ItemDto.builder()
+                .name("drill")
+                .description("cordless drill")
+                .available(true)
+                .build()).getId();
+        itemRepository.findById(itemId);
+        statistics.clear();
+
+        assertEquals("drill", itemRepository.findById(itemId).orElseThrow().getName());
+        assertEquals(1, statistics.getCacheRegionStatistics("items").getHitCount());
+
+        itemService.updateItem(ownerId, itemId, ItemDto.builder().name("hammer").available(false).build());
+
+        assertEquals("hammer", itemRepository.findById(itemId).orElseThrow().getName());
+        assertEquals(false, itemRepository.findById(itemId).orElseThrow().getAvailable());
+    }
+
+    @Test
+    void itemRowsByRequestAreCachedUntilItemsChange() {
+        Long requestId = itemRequestService.createItemRequest(ownerId,
+                ItemRequestShortDto.builder().description("need a drill").build()).getId();
+        Long itemId = itemService.createItem(ownerId, ItemDto.builder()
+                .name("drill")
+                .description("cordless drill")
+                .available(true)
+                .requestId(requestId)
+                .build()).getId();
+
+        itemRepository.findRowsByRequestIdIn(List.of(requestId));
+        statistics.clear();
+        itemRepository.findRowsByRequestIdIn(List.of(requestId));
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        itemService.updateItem(ownerId, itemId, ItemDto.builder().name("hammer").build());
+
+        assertEquals(List.of("hammer"), itemRepository.findRowsByRequestIdIn(List.of(requestId)).stream()
+                .map(ItemRowDto::getName)
+                .collect(Collectors.toList()));
+        assertTrue(cacheRegionStats.hitRatios().containsKey("item-rows-by-request"));
+    }
+}
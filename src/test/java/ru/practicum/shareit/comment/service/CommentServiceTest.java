@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.datasource.PrimaryReads;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.UserNotFoundException;
@@ -17,9 +18,11 @@ import ru.practicum.shareit.item.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.comment.service.CommentServiceImpl;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -43,7 +46,7 @@ public class CommentServiceTest {
 
     @BeforeEach
     private void setUp() {
-        commentService = new CommentServiceImpl(userRepository, itemRepository, commentRepository, bookingRepository);
+        commentService = new CommentServiceImpl(new UserCache(userRepository, PrimaryReads.direct(), 100, Duration.ofMinutes(5)), itemRepository, commentRepository, bookingRepository);
     }
 
     @Test
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "shareit.datasource.replica.url=jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replica.username=sa",
+        "shareit.datasource.replica.password=",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@DirtiesContext
+class ReadOnlyRoutingDataSourceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replicaDataSource);
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.update("insert into users (id, name, email) values (1000, 'replica', 'replica@mail.ru')");
+    }
+
+    @Test
+    void writesGoToPrimaryAndReadOnlyTransactionsToReplica() {
+        UserDto created = userService.createUser(UserDto.builder().name("primary").email("primary@mail.ru").build());
+
+        assertEquals(1, primary.queryForObject("select count(*) from users where id = ?", Integer.class,
+                created.getId()));
+        assertEquals(0, replica.queryForObject("select count(*) from users where id = ?", Integer.class,
+                created.getId()));
+
+        assertEquals(List.of("replica@mail.ru"), userService.getUsers().stream()
+                .map(UserDto::getEmail)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void cachedUsersAreReadFromPrimary() {
+        UserDto created = userService.createUser(UserDto.builder().name("cached").email("cached@mail.ru").build());
+
+        assertEquals("cached", userService.getUser(created.getId()).getName());
+        assertThrows(UserNotFoundException.class, () -> userService.getUser(1000L));
+        assertEquals(List.of("replica@mail.ru"), userService.getUsers().stream()
+                .map(UserDto::getEmail)
+                .collect(Collectors.toList()));
+    }
+}
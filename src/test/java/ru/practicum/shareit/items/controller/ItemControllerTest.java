@@ -9,21 +9,33 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentShortDto;
 import ru.practicum.shareit.item.comment.service.CommentService;
+import ru.practicum.shareit.item.dto.BookedPeriodDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.transfer.ItemTransferService;
+import ru.practicum.shareit.transfer.TransferFormat;
 
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,6 +51,9 @@ class ItemControllerTest {
     @MockBean
     private CommentService commentService;
 
+    @MockBean
+    private ItemTransferService itemTransferService;
+
     @Autowired
     private MockMvc mvc;
 
@@ -182,4 +197,95 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.created",
                         is(commentDtoCreated.getCreated().format(DateTimeFormatter.ISO_DATE_TIME))));
     }
+
+    @Test
+    protected void findAvailableByTextTest() throws Exception {
+        when(itemService.findAvailableByText("drill", LocalDateTime.of(2030, 1, 4, 10, 0),
+                LocalDateTime.of(2030, 1, 6, 18, 0), 0, 10))
+                .thenReturn(List.of(itemDtoCreated));
+
+        mvc.perform(get("/items/search/available")
+                        .param("text", "drill")
+                        .param("start", "2030-01-04T10:00:00")
+                        .param("end", "2030-01-06T18:00:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(itemDtoCreated.getId()), Long.class))
+                .andExpect(jsonPath("$[0].name", is(itemDtoCreated.getName())));
+    }
+
+    @Test
+    protected void getAvailabilityTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 2, 10, 0);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .from(from)
+                .to(to)
+                .available(false)
+                .booked(List.of(new BookedPeriodDto(from.plusHours(2), to.plusHours(2))))
+                .build();
+        when(itemService.getAvailability(1L, from, to))
+                .thenReturn(availability);
+
+        mvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-02T10:00:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1L), Long.class))
+                .andExpect(jsonPath("$.available", is(false)))
+                .andExpect(jsonPath("$.booked[0].start", is("2030-01-01T12:00:00")))
+                .andExpect(jsonPath("$.booked[0].end", is("2030-01-02T12:00:00")));
+    }
+
+    @Test
+    protected void importItemsTest() throws Exception {
+        when(itemTransferService.importItems(eq(1L), any(), eq(TransferFormat.CSV)))
+                .thenReturn(ItemImportResultDto.builder().processed(2).imported(1).failed(1)
+                        .errors(List.of("line 3: name is empty")).build());
+
+        mvc.perform(post("/items/import")
+                        .content("name,description,available\ndrill,cordless,true\n,empty,true\n")
+                        .contentType("text/csv")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0]", is("line 3: name is empty")));
+    }
+
+    @Test
+    protected void importItemsUnsupportedContentTypeTest() throws Exception {
+        mvc.perform(post("/items/import")
+                        .content("<items/>")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    protected void exportItemsTest() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(1);
+            output.write("{\"id\":1,\"name\":\"drill\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(itemTransferService).exportItems(eq(1L), any(), eq(TransferFormat.NDJSON));
+
+        mvc.perform(get("/items/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andExpect(content().string("{\"id\":1,\"name\":\"drill\"}\n"));
+    }
+
+    @Test
+    protected void exportItemsUnknownUserTest() throws Exception {
+        doThrow(new UserNotFoundException("user id 99 not found")).when(itemTransferService).checkUser(99L);
+
+        mvc.perform(get("/items/export")
+                        .header("X-Sharer-User-Id", 99L))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
 }
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.items.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        itemSearchIndex = new ItemSearchIndex(itemRepository);
+    }
+
+    @Test
+    protected void searchMatchesWordPrefixesIgnoringCase() {
+        itemSearchIndex.index(item(1L, "Дрель", "Простая дрель", true));
+        itemSearchIndex.index(item(2L, "Отвертка", "Аккумуляторная отвертка", true));
+
+        assertEquals(itemSearchIndex.search("дРе", 0, 10), List.of(1L));
+        assertEquals(itemSearchIndex.search("аккУМУляторная", 0, 10), List.of(2L));
+        assertTrue(itemSearchIndex.search("рель", 0, 10).isEmpty());
+    }
+
+    @Test
+    protected void searchRequiresEveryWordAndRanksNameMatchesFirst() {
+        itemSearchIndex.index(item(1L, "Saw", "cuts like a power drill", true));
+        itemSearchIndex.index(item(2L, "Power drill", "heavy", true));
+        itemSearchIndex.index(item(3L, "Drill", "manual", true));
+
+        assertEquals(itemSearchIndex.search("power drill", 0, 10), List.of(2L, 1L));
+        assertEquals(itemSearchIndex.search("drill", 0, 10), List.of(2L, 3L, 1L));
+        assertEquals(itemSearchIndex.search("drill", 1, 1), List.of(3L));
+    }
+
+    @Test
+    protected void indexSkipsUnavailableItemsAndReplacesOldTerms() {
+        itemSearchIndex.index(item(1L, "Drill", "old", true));
+        itemSearchIndex.index(item(1L, "Hammer", "new", true));
+
+        assertTrue(itemSearchIndex.search("drill", 0, 10).isEmpty());
+        assertEquals(itemSearchIndex.search("hammer", 0, 10), List.of(1L));
+
+        itemSearchIndex.index(item(1L, "Hammer", "new", false));
+        assertTrue(itemSearchIndex.search("hammer", 0, 10).isEmpty());
+    }
+
+    @Test
+    protected void rebuildReadsDatabaseAndKeepsChangesMadeMeanwhile() {
+        itemSearchIndex.index(item(1L, "Drill", "deleted elsewhere", true));
+        itemSearchIndex.index(item(2L, "Ladder", "removed meanwhile", true));
+        when(itemRepository.findFirst1000ByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(0L))
+                .thenAnswer(invocation -> {
+                    itemSearchIndex.index(item(4L, "Tent", "added meanwhile", true));
+                    itemSearchIndex.remove(2L);
+                    assertEquals(itemSearchIndex.search("tent", 0, 10), List.of(4L));
+                    return List.of(item(2L, "Ladder", "removed meanwhile", true),
+                            item(3L, "Saw", "created elsewhere", true));
+                });
+        when(itemRepository.findFirst1000ByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(3L))
+                .thenReturn(List.of());
+
+        itemSearchIndex.rebuild();
+
+        assertTrue(itemSearchIndex.search("drill", 0, 10).isEmpty());
+        assertTrue(itemSearchIndex.search("ladder", 0, 10).isEmpty());
+        assertEquals(itemSearchIndex.search("saw", 0, 10), List.of(3L));
+        assertEquals(itemSearchIndex.search("tent", 0, 10), List.of(4L));
+    }
+
+    @Test
+    protected void blankQueryFindsNothing() {
+        itemSearchIndex.index(item(1L, "Drill", "info", true));
+
+        assertTrue(itemSearchIndex.search(" , ", 0, 10).isEmpty());
+    }
+
+    private Item item(Long id, String name, String description, Boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
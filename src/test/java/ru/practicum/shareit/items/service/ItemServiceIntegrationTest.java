@@ -1,5 +1,7 @@
 package ru.practicum.shareit.items.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,20 +11,30 @@ import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-
-@SpringBootTest
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static ru.practicum.shareit.metrics.SqlAssertions.assertQueryCount;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
 public class ItemServiceIntegrationTest {
 
     @Autowired
@@ -37,8 +49,18 @@ public class ItemServiceIntegrationTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserCache userCache;
+
     @BeforeEach
     private void setUp() {
+        userCache.clear();
         User owner = User.builder()
                 .name("owner")
                 .email("owner@email.com")
@@ -85,6 +107,7 @@ public class ItemServiceIntegrationTest {
 
     @AfterEach
     private void tearDown() {
+        commentRepository.deleteAll();
         bookingRepository.deleteAll();
         itemRepository.deleteAll();
         userRepository.deleteAll();
@@ -108,8 +131,60 @@ public class ItemServiceIntegrationTest {
     @DirtiesContext
     @Test
     protected void getUserItems() throws Exception {
-        List<ItemDto> itemDtos = itemService.getItems(1L, 0, 10);
+        commentRepository.save(Comment.builder()
+                .text("comment")
+                .item(itemRepository.findAll().get(0))
+                .author(userRepository.findAll().get(1))
+                .created(LocalDateTime.now())
+                .build());
+
+        List<ItemDto> itemDtos = assertQueryCount(5, () -> itemService.getItems(1L, 0, 10));
         assertEquals(itemDtos.size(), 1);
         assertEquals(itemDtos.get(0).getName(), "item1");
+        assertNotNull(itemDtos.get(0).getLastBooking());
+        assertNull(itemDtos.get(0).getNextBooking());
+        assertEquals(itemDtos.get(0).getComments().size(), 1);
+        assertEquals(itemDtos.get(0).getComments().get(0).getAuthorName(), "booker");
+    }
+
+    @DirtiesContext
+    @Test
+    protected void getItemFetchesSingleLastAndNextBooking() {
+        User owner = userRepository.findAll().get(0);
+        User booker = userRepository.findAll().get(1);
+        Item item = itemRepository.findAll().get(0);
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("item2")
+                .description("item2 desc")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 10; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(now.minusDays(i + 1))
+                    .end(now.minusDays(i))
+                    .item(i % 2 == 0 ? item : otherItem)
+                    .booker(booker)
+                    .bookingStatus(BookingStatus.APPROVED)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .start(now.plusDays(i))
+                    .end(now.plusDays(i + 1))
+                    .item(i % 2 == 0 ? item : otherItem)
+                    .booker(booker)
+                    .bookingStatus(BookingStatus.APPROVED)
+                    .build());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ItemDto itemDto = assertQueryCount(4, () -> itemService.getItem(owner.getId(), item.getId()));
+
+        assertEquals(itemDto.getLastBooking().getStart().toLocalDate(), now.minusDays(3).toLocalDate());
+        assertEquals(itemDto.getNextBooking().getStart().toLocalDate(), now.plusDays(2).toLocalDate());
+        assertEquals(statistics.getEntityStatistics(Booking.class.getName()).getLoadCount(), 2);
     }
 }
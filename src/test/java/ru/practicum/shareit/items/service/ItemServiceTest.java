@@ -8,24 +8,43 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.datasource.PrimaryReads;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.item.comment.dto.ItemCommentDto;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemRowDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -45,9 +64,13 @@ public class ItemServiceTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    private ItemSearchIndex itemSearchIndex;
+
     @BeforeEach
     private void setUp() {
-        itemService = new ItemServiceImpl(userRepository, itemRepository, bookingRepository, commentRepository, itemRequestRepository);
+        itemSearchIndex = new ItemSearchIndex(itemRepository);
+        itemService = new ItemServiceImpl(new UserCache(userRepository, PrimaryReads.direct(), 100, Duration.ofMinutes(5)), itemRepository, bookingRepository, commentRepository, itemRequestRepository,
+                itemSearchIndex, new ItemAvailabilityIndex(bookingRepository, PrimaryReads.direct(), 100, Duration.ofMinutes(5)));
     }
 
     @Test
@@ -144,7 +167,7 @@ public class ItemServiceTest {
         ItemDto itemDto = ItemDto.builder().name("updated name").description("updated description").available(true).build();
 
         when(itemRepository.findById(any())).thenReturn(Optional.of(item));
-        when(userRepository.existsById(any())).thenReturn(true);
+        when(userRepository.existsUserById(any())).thenReturn(true);
         when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
         when(userRepository.findById(any())).thenReturn(Optional.of(user));
         InvalidUserException e = assertThrows(InvalidUserException.class, () -> itemService.updateItem(user.getId(), item.getId(), itemDto));
@@ -158,19 +181,19 @@ public class ItemServiceTest {
 
         User booker = User.builder().id(3L).name("booker").email("booker@mail.ru").build();
 
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
+        when(userRepository.existsUserById(2L)).thenReturn(true);
 
-        when(itemRepository.findAllByOwnerId(any(), any())).thenReturn(Page.empty());
+        when(itemRepository.findRowsByOwnerId(any(), any())).thenReturn(Page.empty());
 
         List<ItemDto> itemDtos = itemService.getItems(2L, 0, 11);
         Assertions.assertTrue(itemDtos.isEmpty());
 
         Item item = Item.builder().id(1L).name("item name").description("description").available(true).owner(owner).build();
 
-        List<Item> items = new ArrayList<>();
-        items.add(item);
+        List<ItemRowDto> items = new ArrayList<>();
+        items.add(new ItemRowDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), null));
 
-        when(itemRepository.findAllByOwnerId(any(), any())).thenReturn(new PageImpl<>(items));
+        when(itemRepository.findRowsByOwnerId(any(), any())).thenReturn(new PageImpl<>(items));
 
         LocalDateTime created = LocalDateTime.now();
 
@@ -184,15 +207,21 @@ public class ItemServiceTest {
 
         Booking nextBooking = Booking.builder().id(2L).start(created.plusYears(1L)).end(created.plusYears(2L)).item(item).booker(booker).build();
 
-        when(bookingRepository.findAllByItemOwnerIdAndBookingStatusIsAndStartBefore(any(), any(), any(), any())).thenReturn(List.of(lastBooking));
-        when(bookingRepository.findAllByItemOwnerIdAndBookingStatusIsAndStartAfter(any(), any(), any(), any())).thenReturn(List.of(nextBooking));
+        ItemCommentDto itemComment = ItemCommentDto.builder().itemId(1L).id(1L).text("text")
+                .authorName(booker.getName()).created(created).build();
+
+        when(commentRepository.findAllByItemIdIn(any())).thenReturn(List.of(itemComment));
+
+        when(bookingRepository.findLastBookingsByItemIdIn(any(), any(), any())).thenReturn(List.of(lastBooking));
+        when(bookingRepository.findNextBookingsByItemIdIn(any(), any(), any())).thenReturn(List.of(nextBooking));
 
         itemDtos = itemService.getItems(2L, 0, 11);
         assertNotNull(itemDtos);
+        assertEquals(itemDtos.get(0).getLastBooking().getId(), lastBooking.getId());
+        assertEquals(itemDtos.get(0).getNextBooking().getId(), nextBooking.getId());
+        assertEquals(itemDtos.get(0).getComments().get(0).getAuthorName(), booker.getName());
 
-        Item item2 = Item.builder().id(2L).name("item 2 name").description("description 2").available(true).owner(owner).build();
-
-        items.add(item2);
+        items.add(new ItemRowDto(2L, "item 2 name", "description 2", true, null));
         when(commentRepository.findAllByItemId(2L)).thenReturn(Collections.emptyList());
 
         itemDtos = itemService.getItems(2L, 0, 11);
@@ -201,7 +230,7 @@ public class ItemServiceTest {
 
     @Test
     protected void getItemsThrowsUserNotFoundExceptionTest() {
-        when(userRepository.existsById(any())).thenReturn(false);
+        when(userRepository.existsUserById(any())).thenReturn(false);
         UserNotFoundException userNotFoundException = assertThrows(UserNotFoundException.class,
                 () -> itemService.getItems(1L, 0, 11));
         assertEquals(userNotFoundException.getMessage(), "user id 1 not found");
@@ -211,7 +240,7 @@ public class ItemServiceTest {
     protected void getUsersItemsTestThrowsPaginationException() {
         User user = User.builder().id(2L).name("user").email("user@mail.ru").build();
 
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user));
+        when(userRepository.existsUserById(2L)).thenReturn(true);
 
         IncorrectPaginationException incorrectPaginationException;
 
@@ -293,10 +322,10 @@ public class ItemServiceTest {
         ItemDto itemDto = itemService.getItem(1L, 1L);
         assertNotNull(itemDto);
 
-        when(bookingRepository.findAllByItemOwnerIdAndBookingStatusIsAndStartBefore(any(), any(), any(), any()))
-                .thenReturn(List.of(lastBooking));
-        when(bookingRepository.findAllByItemOwnerIdAndBookingStatusIsAndStartAfter(any(), any(), any(), any()))
-                .thenReturn(List.of(nextBooking));
+        when(bookingRepository.findFirstByItemIdAndBookingStatusIsAndStartBeforeOrderByStartDesc(any(), any(), any()))
+                .thenReturn(Optional.of(lastBooking));
+        when(bookingRepository.findFirstByItemIdAndBookingStatusIsAndStartAfterOrderByStartAsc(any(), any(), any()))
+                .thenReturn(Optional.of(nextBooking));
 
         itemDto = itemService.getItem(2L, 1L);
 
@@ -304,6 +333,8 @@ public class ItemServiceTest {
         assertEquals(itemDto.getName(), item.getName());
         assertEquals(itemDto.getDescription(), item.getDescription());
         assertEquals(itemDto.getAvailable(), item.getAvailable());
+        assertEquals(itemDto.getLastBooking().getId(), lastBooking.getId());
+        assertEquals(itemDto.getNextBooking().getId(), nextBooking.getId());
     }
 
     @Test
@@ -324,7 +355,7 @@ public class ItemServiceTest {
                 .email("owner@mail.ru")
                 .build();
 
-        when(userRepository.existsById(any()))
+        when(userRepository.existsUserById(any()))
                 .thenReturn(true);
 
         when(userRepository.findById(2L))
@@ -355,6 +386,51 @@ public class ItemServiceTest {
         assertNotNull(itemDtos);
     }
 
+    @Test
+    protected void findByTextUsesSearchIndexTest() {
+        User owner = User.builder().id(2L).name("owner").email("owner@mail.ru").build();
+        Item drill = Item.builder().id(1L).name("Drill").description("cordless").available(true).owner(owner).build();
+        Item screwdriver = Item.builder().id(2L).name("Screwdriver").description("works like a drill")
+                .available(true).owner(owner).build();
+
+        when(itemRepository.findFirst1000ByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(0L))
+                .thenReturn(List.of(drill, screwdriver));
+        when(itemRepository.findFirst1000ByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(2L))
+                .thenReturn(Collections.emptyList());
+        when(itemRepository.findAllById(any())).thenReturn(List.of(screwdriver, drill));
+        itemSearchIndex.rebuild();
+
+        List<ItemDto> itemDtos = itemService.findByText("DRI", 0, 10);
+
+        assertEquals(itemDtos.size(), 2);
+        assertEquals(itemDtos.get(0).getId(), drill.getId());
+        assertEquals(itemDtos.get(1).getId(), screwdriver.getId());
+
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(screwdriver));
+        itemDtos = itemService.findByText("drill", 1, 1);
+        assertEquals(itemDtos.size(), 1);
+        assertEquals(itemDtos.get(0).getId(), screwdriver.getId());
+
+        assertTrue(itemService.findByText("hammer", 0, 10).isEmpty());
+    }
+
+    @Test
+    protected void findByTextSkipsItemsMadeUnavailableElsewhereTest() {
+        User owner = User.builder().id(2L).name("owner").email("owner@mail.ru").build();
+        Item drill = Item.builder().id(1L).name("Drill").description("cordless").available(true).owner(owner).build();
+        Item unavailableDrill = Item.builder().id(1L).name("Drill").description("cordless").available(false)
+                .owner(owner).build();
+
+        when(itemRepository.findFirst1000ByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(0L))
+                .thenReturn(List.of(drill));
+        when(itemRepository.findFirst1000ByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(1L))
+                .thenReturn(Collections.emptyList());
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(unavailableDrill));
+        itemSearchIndex.rebuild();
+
+        assertTrue(itemService.findByText("drill", 0, 10).isEmpty());
+    }
+
     @Test
     protected void searchByTextThrowsIncorrectPaginationException() {
         User owner = User.builder()
@@ -363,7 +439,7 @@ public class ItemServiceTest {
                 .email("user@mail.ru")
                 .build();
 
-        when(userRepository.existsById(any()))
+        when(userRepository.existsUserById(any()))
                 .thenReturn(true);
 
         when(userRepository.findById(2L))
@@ -379,4 +455,118 @@ public class ItemServiceTest {
         assertEquals(invalidPageParamsException.getMessage(), "pagination error");
     }
 
+    @Test
+    protected void getAvailabilityTest() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        BookingInterval booking = new BookingInterval(1L, from.plusHours(1), from.plusHours(2));
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findIntervalsEndingAfter(eq(1L), eq(ItemAvailabilityIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of(booking));
+
+        ItemAvailabilityDto busy = itemService.getAvailability(1L, from, from.plusDays(1));
+        ItemAvailabilityDto free = itemService.getAvailability(1L, from.plusHours(2), from.plusDays(1));
+
+        assertFalse(busy.getAvailable());
+        assertEquals(1, busy.getBooked().size());
+        assertEquals(booking.getStart(), busy.getBooked().get(0).getStart());
+        assertTrue(free.getAvailable());
+        assertTrue(free.getBooked().isEmpty());
+    }
+
+    @Test
+    protected void getAvailabilityWrongDatesTest() {
+        LocalDateTime from = LocalDateTime.now();
+
+        assertThrows(WrongDateException.class, () -> itemService.getAvailability(1L, from, from));
+    }
+
+    @Test
+    protected void getAvailabilityItemNotFoundTest() {
+        LocalDateTime from = LocalDateTime.now();
+        when(itemRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ItemNotFoundException.class, () -> itemService.getAvailability(1L, from, from.plusDays(1)));
+    }
+
+    @Test
+    protected void findAvailableByTextFiltersBookedItemsTest() {
+        User owner = User.builder().id(2L).name("owner").email("owner@mail.ru").build();
+        Item drill = Item.builder().id(1L).name("Drill").description("cordless").available(true).owner(owner).build();
+        Item hammerDrill = Item.builder().id(2L).name("Hammer drill").description("sds").available(true)
+                .owner(owner).build();
+        Item oldDrill = Item.builder().id(3L).name("Old drill").description("corded").available(true)
+                .owner(owner).build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+
+        when(itemRepository.findFirst1000ByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(0L))
+                .thenReturn(List.of(drill, hammerDrill, oldDrill));
+        when(itemRepository.findFirst1000ByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(3L))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findBookedItemIds(List.of(1L, 2L, 3L), ItemAvailabilityIndex.ACTIVE_STATUSES,
+                start, end)).thenReturn(List.of(2L));
+        when(itemRepository.findAllById(List.of(3L))).thenReturn(List.of(oldDrill));
+        itemSearchIndex.rebuild();
+
+        List<ItemDto> itemDtos = itemService.findAvailableByText("drill", start, end, 1, 1);
+
+        assertEquals(itemDtos.size(), 1);
+        assertEquals(itemDtos.get(0).getId(), oldDrill.getId());
+    }
+
+    @Test
+    protected void findAvailableByTextChecksCandidatesInChunksTest() {
+        User owner = User.builder().id(2L).name("owner").email("owner@mail.ru").build();
+        List<Item> drills = LongStream.rangeClosed(1, 2500)
+                .mapToObj(id -> Item.builder().id(id).name("Drill").description("drill " + id).available(true)
+                        .owner(owner).build())
+                .collect(Collectors.toList());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+
+        when(itemRepository.findFirst1000ByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(anyLong()))
+                .thenAnswer(invocation -> drills.stream()
+                        .filter(item -> item.getId() > invocation.<Long>getArgument(0))
+                        .limit(1000)
+                        .collect(Collectors.toList()));
+        when(bookingRepository.findBookedItemIds(anyList(), eq(ItemAvailabilityIndex.ACTIVE_STATUSES), eq(start),
+                eq(end))).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).stream()
+                .filter(itemId -> itemId <= 1000)
+                .collect(Collectors.toList()));
+        when(itemRepository.findAllById(anyList())).thenAnswer(invocation -> drills.stream()
+                .filter(item -> invocation.<List<Long>>getArgument(0).contains(item.getId()))
+                .collect(Collectors.toList()));
+        itemSearchIndex.rebuild();
+
+        List<ItemDto> itemDtos = itemService.findAvailableByText("drill", start, end, 10, 10);
+
+        assertEquals(itemDtos.stream().map(ItemDto::getId).collect(Collectors.toList()),
+                LongStream.rangeClosed(1011, 1020).boxed().collect(Collectors.toList()));
+        verify(bookingRepository, times(2)).findBookedItemIds(argThat(ids -> ids.size() == 1000),
+                eq(ItemAvailabilityIndex.ACTIVE_STATUSES), eq(start), eq(end));
+    }
+
+    @Test
+    protected void findAvailableByTextFallsBackToQueryTest() {
+        Item drill = Item.builder().id(1L).name("Drill").description("cordless").available(true).build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        when(itemRepository.searchAvailableByText("drill", ItemAvailabilityIndex.ACTIVE_STATUSES, start, end,
+                PageRequest.of(0, 10))).thenReturn(new SliceImpl<>(List.of(drill)));
+
+        List<ItemDto> itemDtos = itemService.findAvailableByText("drill", start, end, 0, 10);
+
+        assertEquals(itemDtos.size(), 1);
+        assertEquals(itemDtos.get(0).getId(), drill.getId());
+    }
+
+    @Test
+    protected void findAvailableByTextWrongDatesTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(WrongDateException.class,
+                () -> itemService.findAvailableByText("drill", start, start.minusHours(1), 0, 10));
+        assertThrows(IncorrectPaginationException.class,
+                () -> itemService.findAvailableByText("drill", start, start.plusHours(1), -1, 10));
+    }
 }
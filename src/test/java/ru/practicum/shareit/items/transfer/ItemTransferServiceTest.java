@@ -0,0 +1,160 @@
+package ru.practicum.shareit.items.transfer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.UnsupportedFormatException;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.transfer.ItemTransferService;
+import ru.practicum.shareit.request.dto.ItemRequestShortDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.transfer.TransferFormat;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ItemTransferServiceTest {
+
+    @Autowired
+    private ItemTransferService itemTransferService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @SpyBean
+    private ItemRepository itemRepository;
+
+    private Long ownerId;
+
+    private Long requestId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.createUser(UserDto.builder().name("owner").email("import-owner@mail.ru").build())
+                .getId();
+        Long requesterId = userService.createUser(UserDto.builder().name("requester")
+                .email("import-requester@mail.ru").build()).getId();
+        requestId = itemRequestService.createItemRequest(requesterId,
+                ItemRequestShortDto.builder().description("need a drill").build()).getId();
+    }
+
+    @Test
+    void importsNdjsonInBatchesAndReportsBadLines() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1200; i++) {
+            body.append("{\"name\":\"drill ").append(i).append("\",\"description\":\"cordless\",\"available\":true}\n");
+        }
+        body.append("{\"name\":\"\",\"description\":\"no name\",\"available\":true}\n");
+        body.append("not json\n");
+        body.append("\n");
+        body.append("{\"name\":\"saw\",\"description\":\"for request\",\"available\":false,\"requestId\":")
+                .append(requestId).append("}\n");
+        body.append("{\"name\":\"saw\",\"description\":\"unknown request\",\"available\":true,\"requestId\":999999}\n");
+
+        ItemImportResultDto result = itemTransferService.importItems(ownerId, stream(body.toString()),
+                TransferFormat.NDJSON);
+
+        assertEquals(1204, result.getProcessed());
+        assertEquals(1201, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of("line 1201: name is empty", "line 1202: malformed line",
+                "line 1205: item request not found"), result.getErrors());
+        assertEquals(1201, itemService.getItems(ownerId, 0, 2000).size());
+        assertEquals(10, itemService.findByText("drill", 0, 10).size());
+    }
+
+    @Test
+    void importsCsvAndExportsBothFormats() throws IOException {
+        String body = "available,name,description,requestId\n" +
+                "true,drill,\"cordless, 18V\",\n" +
+                "false,saw,\"says \"\"hi\"\"\"," + requestId + "\n" +
+                "maybe,hammer,heavy,\n";
+
+        ItemImportResultDto result = itemTransferService.importItems(ownerId, stream(body), TransferFormat.CSV);
+
+        assertEquals(2, result.getImported());
+        assertEquals(List.of("line 4: available must be true or false"), result.getErrors());
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        itemTransferService.exportItems(ownerId, csv, TransferFormat.CSV);
+        String[] lines = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,name,description,available,requestId", lines[0]);
+        assertTrue(lines[1].endsWith(",drill,\"cordless, 18V\",true,"));
+        assertTrue(lines[2].endsWith(",saw,\"says \"\"hi\"\"\",false," + requestId));
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        itemTransferService.exportItems(ownerId, ndjson, TransferFormat.NDJSON);
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        itemTransferService.importItems(ownerId, new ByteArrayInputStream(ndjson.toByteArray()), TransferFormat.NDJSON);
+        itemTransferService.exportItems(ownerId, copy, TransferFormat.NDJSON);
+        assertEquals(4, copy.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    @Test
+    void savesRejectedBatchLineByLine() throws IOException {
+        doThrow(new DataIntegrityViolationException("batch failed"))
+                .when(itemRepository).saveAll(anyIterable());
+        doThrow(new DataIntegrityViolationException("line failed"))
+                .when(itemRepository).save(argThat(item -> "broken".equals(item.getName())));
+        String body = "{\"name\":\"drill\",\"description\":\"cordless\",\"available\":true}\n" +
+                "{\"name\":\"broken\",\"description\":\"rejected by the database\",\"available\":true}\n" +
+                "{\"name\":\"" + "x".repeat(256) + "\",\"description\":\"too long\",\"available\":true}\n" +
+                "{\"name\":\"saw\",\"description\":\"sharp\",\"available\":true}\n";
+
+        ItemImportResultDto result = itemTransferService.importItems(ownerId, stream(body), TransferFormat.NDJSON);
+
+        assertEquals(4, result.getProcessed());
+        assertEquals(2, result.getImported());
+        assertEquals(List.of("line 3: name is longer than 255 characters", "line 2: item could not be saved"),
+                result.getErrors());
+        assertEquals(List.of("drill", "saw"), itemService.getItems(ownerId, 0, 10).stream()
+                .map(ItemDto::getName)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void rejectsCsvWithoutRequiredColumns() {
+        assertThrows(UnsupportedFormatException.class,
+                () -> itemTransferService.importItems(ownerId, stream("name,available\ndrill,true\n"),
+                        TransferFormat.CSV));
+    }
+
+    @Test
+    void rejectsUnknownUser() {
+        assertThrows(UserNotFoundException.class,
+                () -> itemTransferService.exportItems(999999L, new ByteArrayOutputStream(), TransferFormat.NDJSON));
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@DirtiesContext
+class MetricsTest {
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void prometheusExposesEndpointRepositoryAndHibernateMetrics() throws Exception {
+        Long ownerId = userService.createUser(UserDto.builder().name("owner").email("metrics-owner@mail.ru").build())
+                .getId();
+
+        mvc.perform(get("/bookings/owner").param("state", "FUTURE").header(USER_ID, ownerId))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        matchesPattern("(?s).*http_server_requests_seconds_count\\{[^}]*state=\"FUTURE\"[^}]*"
+                                + "uri=\"/bookings/owner\".*"),
+                        matchesPattern("(?s).*spring_data_repository_invocations_seconds_count\\{[^}]*"
+                                + "method=\"findOwnerFutureBookings\".*"),
+                        matchesPattern("(?s).*shareit_request_statements_count\\{[^}]*uri=\"/bookings/owner\".*"),
+                        containsString("shareit_request_entity_loads"),
+                        containsString("shareit_request_flushes"),
+                        containsString("hibernate_query_executions_total"))));
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SampledDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private DataSource proxy;
+
+    @Mock
+    private Connection plain;
+
+    @Mock
+    private Connection proxied;
+
+    @AfterEach
+    void tearDown() {
+        RequestStatistics.end();
+    }
+
+    @Test
+    void unsampledRequestsGetPlainConnections() throws Exception {
+        when(target.getConnection()).thenReturn(plain);
+        RequestStatistics.begin(false);
+
+        assertSame(plain, new SampledDataSource(target, proxy).getConnection());
+    }
+
+    @Test
+    void sampledRequestsGetProxiedConnections() throws Exception {
+        when(proxy.getConnection()).thenReturn(proxied);
+        RequestStatistics.begin(true);
+
+        assertSame(proxied, new SampledDataSource(target, proxy).getConnection());
+    }
+
+    @Test
+    void connectionsOutsideRequestsArePlain() throws Exception {
+        when(target.getConnection()).thenReturn(plain);
+
+        assertSame(plain, new SampledDataSource(target, proxy).getConnection());
+    }
+}
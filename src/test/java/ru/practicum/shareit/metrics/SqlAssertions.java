@@ -0,0 +1,37 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the SQL statements run by an action on the current thread, including
+ * those of MockMvc requests it performs.
+ */
+public final class SqlAssertions {
+
+    private SqlAssertions() {
+    }
+
+    public static <T> T assertQueryCount(long expected, ThrowingSupplier<T> action) {
+        RequestStatistics statistics = RequestStatistics.begin(true);
+        T result;
+        try {
+            result = action.get();
+        } catch (Throwable e) {
+            throw new AssertionError("action failed", e);
+        } finally {
+            RequestStatistics.end();
+        }
+        assertEquals(expected, statistics.getStatements(), () -> "statements: " + statistics.getSqlCounts());
+        return result;
+    }
+
+    public static void assertQueryCount(long expected, Executable action) {
+        assertQueryCount(expected, () -> {
+            action.execute();
+            return null;
+        });
+    }
+}
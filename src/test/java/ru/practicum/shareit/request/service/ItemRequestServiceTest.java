@@ -6,19 +6,24 @@ import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageImpl;
+import ru.practicum.shareit.datasource.PrimaryReads;
 import ru.practicum.shareit.exception.EmptyDescriptionException;
 import ru.practicum.shareit.exception.IncorrectPaginationException;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemRowDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestRowDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -46,7 +51,7 @@ public class ItemRequestServiceTest {
 
     @BeforeEach
     private void setUp() {
-        itemRequestService = new ItemRequestServiceImpl(userRepository, itemRepository, itemRequestRepository);
+        itemRequestService = new ItemRequestServiceImpl(new UserCache(userRepository, PrimaryReads.direct(), 100, Duration.ofMinutes(5)), itemRepository, itemRequestRepository);
     }
 
     @Test
@@ -154,9 +159,9 @@ public class ItemRequestServiceTest {
                 .email("user@mail.ru")
                 .build();
 
-        List<Item> items = Collections.emptyList();
+        List<ItemRowDto> items = Collections.emptyList();
 
-        when(itemRepository.findAllByRequestIdIn(List.of(2L)))
+        when(itemRepository.findRowsByRequestIdIn(List.of(2L)))
                 .thenReturn(items);
 
         itemRequestDtos = itemRequestService.getItemRequests(1L);
@@ -172,9 +177,10 @@ public class ItemRequestServiceTest {
                 .request(request)
                 .build();
 
-        items = List.of(item);
+        items = List.of(new ItemRowDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                request.getId()));
 
-        when(itemRepository.findAllByRequestIdIn(List.of(2L)))
+        when(itemRepository.findRowsByRequestIdIn(List.of(2L)))
                 .thenReturn(items);
 
         itemRequestDtos = itemRequestService.getItemRequests(1L);
@@ -217,19 +223,20 @@ public class ItemRequestServiceTest {
                 .created(now)
                 .build();
 
-        List<ItemRequest> itemRequests = new ArrayList<>();
+        List<ItemRequestRowDto> itemRequests = new ArrayList<>();
 
-        when(itemRequestRepository.findAllByRequesterIdIsNotOrderByCreatedDesc(any(), any()))
+        when(itemRequestRepository.findOthersRequests(any(), any()))
                 .thenReturn(new PageImpl<>(itemRequests));
         List<ItemRequestDto> itemRequestDtos = itemRequestService.getAllItemRequests(1L, 0, 11);
         assertTrue(itemRequestDtos.isEmpty());
 
-        itemRequests = List.of(request);
-        when(itemRequestRepository.findAllByRequesterIdIsNotOrderByCreatedDesc(any(), any()))
+        itemRequests = List.of(new ItemRequestRowDto(request.getId(), request.getDescription(), request.getCreated(),
+                requester.getId(), requester.getName(), requester.getEmail()));
+        when(itemRequestRepository.findOthersRequests(any(), any()))
                 .thenReturn(new PageImpl<>(itemRequests));
 
-        List<Item> items = Collections.emptyList();
-        when(itemRepository.findAllByRequestIdIn(List.of(1L)))
+        List<ItemRowDto> items = Collections.emptyList();
+        when(itemRepository.findRowsByRequestIdIn(List.of(1L)))
                 .thenReturn(items);
 
         itemRequestDtos = itemRequestService.getAllItemRequests(1L, 0, 11);
@@ -243,13 +250,15 @@ public class ItemRequestServiceTest {
                 .owner(user)
                 .request(request)
                 .build();
-        items = List.of(item);
+        items = List.of(new ItemRowDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                request.getId()));
 
-        when(itemRepository.findAllByRequestIdIn(List.of(1L)))
+        when(itemRepository.findRowsByRequestIdIn(List.of(1L)))
                 .thenReturn(items);
 
         itemRequestDtos = itemRequestService.getAllItemRequests(1L, 0, 11);
-        assertNotNull(itemRequestDtos);
+        assertEquals(itemRequestDtos.get(0).getRequester().getEmail(), requester.getEmail());
+        assertEquals(itemRequestDtos.get(0).getItems().size(), 1);
     }
 
     @Test
@@ -290,8 +299,8 @@ public class ItemRequestServiceTest {
                 .email("owner@mail.ru")
                 .build();
 
-        when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
+        when(userRepository.existsUserById(1L))
+                .thenReturn(true);
 
         LocalDateTime now = LocalDateTime.now();
 
@@ -302,11 +311,11 @@ public class ItemRequestServiceTest {
                 .created(now)
                 .build();
 
-        when(itemRequestRepository.findById(request.getId()))
+        when(itemRequestRepository.findWithRequesterById(request.getId()))
                 .thenReturn(Optional.of(request));
 
-        List<Item> items = Collections.emptyList();
-        when(itemRepository.findAllByRequestId(1L))
+        List<ItemRowDto> items = Collections.emptyList();
+        when(itemRepository.findRowsByRequestId(1L))
                 .thenReturn(items);
 
         ItemRequestDto itemRequestDto = itemRequestService.getItemRequestById(1L, 1L);
@@ -320,9 +329,10 @@ public class ItemRequestServiceTest {
                 .owner(user)
                 .request(request)
                 .build();
-        items = List.of(item);
+        items = List.of(new ItemRowDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                request.getId()));
 
-        when(itemRepository.findAllByRequestId(1L))
+        when(itemRepository.findRowsByRequestId(1L))
                 .thenReturn(items);
 
         itemRequestDto = itemRequestService.getItemRequestById(1L, 1L);
@@ -341,15 +351,9 @@ public class ItemRequestServiceTest {
 
     @Test
     protected void getItemRequestByIdThrowsItemRequestNotFoundException() {
-        User user = User.builder()
-                .id(1L)
-                .name("test name")
-                .email("test@mail.ru")
-                .build();
-
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-        when(itemRequestRepository.findById(anyLong()))
+        when(userRepository.existsUserById(anyLong()))
+                .thenReturn(true);
+        when(itemRequestRepository.findWithRequesterById(anyLong()))
                 .thenReturn(Optional.empty());
         ItemRequestNotFoundException itemRequestNotFoundException = assertThrows(ItemRequestNotFoundException.class,
                 () -> itemRequestService.getItemRequestById(1L, 1L));
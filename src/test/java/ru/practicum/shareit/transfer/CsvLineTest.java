@@ -0,0 +1,30 @@
+package ru.practicum.shareit.transfer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvLineTest {
+
+    @Test
+    void parsesQuotedFields() {
+        assertEquals(List.of("drill", "cordless, 18 \"V\"", "true", ""),
+                CsvLine.parse("drill,\"cordless, 18 \"\"V\"\"\",true,"));
+    }
+
+    @Test
+    void formatsAndParsesBack() {
+        String line = CsvLine.format(1L, "saw", "cuts \"wood\", metal", true, null);
+
+        assertEquals("1,saw,\"cuts \"\"wood\"\", metal\",true,", line);
+        assertEquals(List.of("1", "saw", "cuts \"wood\", metal", "true", ""), CsvLine.parse(line));
+    }
+
+    @Test
+    void rejectsUnclosedQuote() {
+        assertThrows(IllegalArgumentException.class, () -> CsvLine.parse("drill,\"cordless"));
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.user.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache(userRepository, PrimaryReads.direct(), 2, Duration.ofMinutes(5));
+    }
+
+    @Test
+    protected void findByIdReadsThroughOnce() {
+        User user = User.builder().id(1L).name("user").email("user@mail.ru").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertEquals(userCache.findById(1L).orElseThrow().getName(), "user");
+        assertEquals(userCache.findById(1L).orElseThrow().getName(), "user");
+        assertTrue(userCache.existsById(1L));
+
+        verify(userRepository, times(1)).findById(1L);
+        assertEquals(userCache.getMissCount(), 1);
+        assertEquals(userCache.getHitCount(), 2);
+    }
+
+    @Test
+    protected void findByIdReturnsCopies() {
+        User user = User.builder().id(1L).name("user").email("user@mail.ru").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userCache.findById(1L).orElseThrow().setName("changed");
+
+        assertEquals(userCache.findById(1L).orElseThrow().getName(), "user");
+    }
+
+    @Test
+    protected void findByIdReturnsCopyOnMiss() {
+        User user = User.builder().id(1L).name("user").email("user@mail.ru").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertNotSame(userCache.findById(1L).orElseThrow(), user);
+    }
+
+    @Test
+    protected void missReadBeforeEvictionIsNotKept() {
+        User user = User.builder().id(1L).name("user").email("user@mail.ru").build();
+        when(userRepository.findById(1L)).thenAnswer(invocation -> {
+            // another request commits a change and evicts while this one still reads the old row
+            userCache.evict(1L);
+            return Optional.of(user);
+        });
+
+        userCache.findById(1L);
+
+        assertEquals(userCache.size(), 0);
+    }
+
+    @Test
+    protected void missingUserIsNotCached() {
+        when(userRepository.existsUserById(1L)).thenReturn(false);
+
+        assertFalse(userCache.existsById(1L));
+        assertFalse(userCache.existsById(1L));
+
+        verify(userRepository, times(2)).existsUserById(1L);
+        verify(userRepository, never()).findById(anyLong());
+        assertEquals(userCache.size(), 0);
+    }
+
+    @Test
+    protected void existsByIdMissDoesNotLoadUser() {
+        User user = User.builder().id(1L).name("user").email("user@mail.ru").build();
+        when(userRepository.existsUserById(1L)).thenReturn(true);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertTrue(userCache.existsById(1L));
+        assertTrue(userCache.existsById(1L));
+
+        verify(userRepository, times(1)).existsUserById(1L);
+        verify(userRepository, never()).findById(anyLong());
+        assertEquals(userCache.getHitCount(), 1);
+        assertEquals(userCache.getMissCount(), 1);
+
+        assertEquals(userCache.findById(1L).orElseThrow().getName(), "user");
+        assertEquals(userCache.findById(1L).orElseThrow().getName(), "user");
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    protected void evictsLeastRecentlyUsedOverMaxSize() {
+        for (long id = 1; id <= 3; id++) {
+            when(userRepository.findById(id))
+                    .thenReturn(Optional.of(User.builder().id(id).name("user" + id).email(id + "@mail.ru").build()));
+        }
+
+        userCache.findById(1L);
+        userCache.findById(2L);
+        userCache.findById(1L);
+        userCache.findById(3L);
+
+        assertEquals(userCache.size(), 2);
+        assertEquals(userCache.getEvictionCount(), 1);
+        userCache.findById(1L);
+        userCache.findById(2L);
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    protected void expiresEntriesAfterTtl() {
+        userCache = new UserCache(userRepository, PrimaryReads.direct(), 2, Duration.ZERO);
+        User user = User.builder().id(1L).name("user").email("user@mail.ru").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userCache.findById(1L);
+        userCache.findById(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+        assertEquals(userCache.getEvictionCount(), 1);
+    }
+
+    @Test
+    protected void evictDropsEntry() {
+        User user = User.builder().id(1L).name("user").email("user@mail.ru").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userCache.findById(1L);
+        userCache.evict(1L);
+        userCache.findById(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+}
@@ -6,12 +6,15 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.datasource.PrimaryReads;
 import ru.practicum.shareit.exception.EmailCollisionException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -31,7 +34,7 @@ public class UserServiceTest {
 
     @BeforeEach
     private void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, new UserCache(userRepository, PrimaryReads.direct(), 100, Duration.ofMinutes(5)));
     }
 
     @Test